@@ -0,0 +1,31 @@
+package tetris;
+
+import java.util.Random;
+
+// 벤치마크용 보드 상태. 행 비트마스크 배열로 만들어 PlayManager.loadBoard 에 넣는다
+public enum BoardFixture {
+    EMPTY(0, 0),
+    HALF_FULL(10, 0),
+    NEAR_TOP_OUT(17, 0),
+    MULTI_CLEAR(10, 4);
+
+    private final int filledRows;
+    private final int fullRows;
+
+    BoardFixture(int filledRows, int fullRows) {
+        this.filledRows = filledRows;
+        this.fullRows = fullRows;
+    }
+
+    // 아래에서부터 filledRows 줄을 한 칸씩 구멍 난 줄로 채우고, 그중 맨 아래 fullRows 줄은 꽉 채운다
+    public long[] rows(int rows, int cols) {
+        Random random = new Random(42);
+        long fullRow = cols == 64 ? -1L : (1L << cols) - 1;
+        long[] bits = new long[rows];
+        for (int i = 0; i < filledRows; i++) {
+            int y = rows - 1 - i;
+            bits[y] = i < fullRows ? fullRow : fullRow & ~(1L << random.nextInt(cols));
+        }
+        return bits;
+    }
+}
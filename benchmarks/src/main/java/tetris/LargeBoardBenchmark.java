@@ -0,0 +1,85 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 보드 높이를 늘려도 조각 하나당 비용이 그대로인지 확인. 아래 10줄만 쌓인(HALF_FULL) 보드를 20행부터 1만 행까지 비교
+// 놓기/되돌리기, 시작 위치에서의 고정 위치 찾기, 보드 평가(높이/구멍), 스냅샷 복사가 모두 쌓인 높이만큼만 훑어야 한다
+// 하드 드롭/고스트 위치(dropY)는 보드 높이와 상관없이 조각 너비만큼만 본다 (dropStepping 은 한 칸씩 내려 보는 비교용)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeBoardBenchmark {
+    @Param({"20", "1000", "10000"})
+    public int rows;
+
+    @Param({"10", "64"})
+    public int cols;
+
+    private PlayManager playManager;
+    private Board board;
+    private final UndoLog log = new UndoLog();
+    private final Placements placements = new Placements();
+    private int[] out;
+    private int[] heights;
+    private int[] targets;
+    private int count;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        playManager = new PlayManager(42, rows, cols, BoardMode.BITBOARD);
+        playManager.loadBoard(BoardFixture.HALF_FULL.rows(rows, cols));
+        board = playManager.getBoard();
+        out = new int[(cols + 4) * (rows + 4) * Mino.ROTATIONS];
+        heights = new int[cols];
+        count = placements.enumerate(board, 0, 0, cols / 2, 0, out);
+        targets = out.clone();
+    }
+
+    // I 조각의 고정 위치를 돌아가며 놓고 되돌림 (세로 I 는 줄을 지우기도 함)
+    @Benchmark
+    public int makeUnmake() {
+        int target = targets[next];
+        next = next + 1 == count ? 0 : next + 1;
+        int cleared = board.make(0, placements.rotation(target), placements.x(target), placements.y(target), log);
+        board.unmake(log);
+        return cleared;
+    }
+
+    @Benchmark
+    public int enumerate() {
+        return placements.enumerate(board, 5, 0, cols / 2, 0, out);
+    }
+
+    // 맨 위에서 T 조각을 열을 돌아가며 떨어뜨림
+    @Benchmark
+    public int dropY() {
+        next = next + 1 == cols - 2 ? 0 : next + 1;
+        return board.dropY(5, 0, next + 1, 0);
+    }
+
+    @Benchmark
+    public int dropStepping() {
+        next = next + 1 == cols - 2 ? 0 : next + 1;
+        int y = 0;
+        while (board.fits(5, 0, next + 1, y + 1)) {
+            y++;
+        }
+        return y;
+    }
+
+    @Benchmark
+    public double evaluate() {
+        return Heuristic.DEFAULT.evaluateBoard(board, heights);
+    }
+
+    @Benchmark
+    public Snapshot snapshot() {
+        return playManager.snapshot();
+    }
+}
@@ -0,0 +1,66 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 지표를 켜 둔 채로 돌려도 되는지: 같은 게임 틱을 지표 켬/끔(-Dtetris.metrics=false, 기록 호출이 JIT 에서 사라짐) 으로 비교
+// record* 두 개는 히스토그램 기록과 카운터 하나의 비용만 잰다
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private static final Action[] ACTIONS = {Action.LEFT, Action.RIGHT, Action.SOFT_DROP, Action.ROTATE};
+
+    private PlayManager playManager;
+    private final Action[] inputs = new Action[4096];
+    private int next;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = ACTIONS[random.nextInt(ACTIONS.length)];
+        }
+        playManager = new PlayManager(seed, BoardMode.BITBOARD);
+    }
+
+    // FixedStepLoop 와 같이 틱 앞뒤 시각으로 틱 시간을 기록. 입력, 중력, 고정, 줄 삭제, Wall Kick 지표가 모두 지나간다
+    private PlayManager tick() {
+        long start = System.nanoTime();
+        if (playManager.isGameOver()) {
+            playManager = new PlayManager(++seed, BoardMode.BITBOARD);
+        }
+        playManager.apply(inputs[next]);
+        next = (next + 1) & (inputs.length - 1);
+        playManager.step();
+        Metrics.recordTick(System.nanoTime() - start);
+        return playManager;
+    }
+
+    @Benchmark
+    public PlayManager gameTick() {
+        return tick();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dtetris.metrics=false")
+    public PlayManager gameTickMetricsOff() {
+        return tick();
+    }
+
+    @Benchmark
+    public void recordHistogram() {
+        Metrics.recordTick(next++ & 0xFFFFF);
+    }
+
+    @Benchmark
+    public void recordCounter() {
+        Metrics.pieceSpawned();
+    }
+}
@@ -0,0 +1,46 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 이동/회전 코드 부하 시험: 보드 상태별 perft(2) 를 Wall Kick 캐시 유무로 비교
+// kickResolve 두 개는 회전 한 번의 Wall Kick 결정만 따로 잰다 (벽에 붙은 I 조각이라 오프셋을 여러 개 시도함)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerftBenchmark {
+    private static final int[] TYPES = Perft.parseTypes("TIOLJSZ");
+
+    @Param({"EMPTY", "HALF_FULL", "NEAR_TOP_OUT"})
+    public BoardFixture fixture;
+
+    @Param({"true", "false"})
+    public boolean kickCache;
+
+    private Board board;
+    private Perft perft;
+    private KickCache kicks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new Board(20, 10, BoardMode.BITBOARD);
+        board.load(fixture.rows(board.getRows(), board.getCols()));
+        kicks = new KickCache(15);
+        perft = new Perft(2, kickCache ? kicks : null);
+    }
+
+    @Benchmark
+    public long perft2() {
+        return perft.count(board, TYPES, 2);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int kickResolve() {
+        return kickCache ? kicks.findKick(board, 0, 1, 0, 5) : PlayManager.resolveKick(board, 0, 1, 0, 5);
+    }
+}
@@ -0,0 +1,97 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// PlayManager 의 이동/회전/충돌/줄 삭제/낙하 경로 측정. 할당량은 -prof gc 로 확인
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayManagerBenchmark {
+    @Param({"EMPTY", "HALF_FULL", "NEAR_TOP_OUT", "MULTI_CLEAR"})
+    public BoardFixture fixture;
+
+    @Param({"BITBOARD", "ARRAY"})
+    public BoardMode mode;
+
+    private PlayManager playManager;
+    private long[] rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        playManager = new PlayManager(42, mode);
+        rows = fixture.rows(playManager.getRows(), playManager.getCols());
+        playManager.loadBoard(rows);
+    }
+
+    @Benchmark
+    public int moveMino() {
+        playManager.moveMino(1, 0);
+        playManager.moveMino(-1, 0);
+        return playManager.getCurrentMino().x;
+    }
+
+    @Benchmark
+    public int rotateMino() {
+        Mino mino = playManager.getCurrentMino();
+        mino.rotation = 0;
+        mino.setXY(playManager.getCols() / 2, 1);
+        playManager.rotateMino();
+        return mino.rotation;
+    }
+
+    // 왼쪽 벽에 붙여 Wall Kick 반복을 타게 함
+    @Benchmark
+    public int rotateMinoAtWall() {
+        Mino mino = playManager.getCurrentMino();
+        mino.rotation = 0;
+        mino.setXY(0, 1);
+        playManager.rotateMino();
+        return mino.x;
+    }
+
+    @Benchmark
+    public boolean checkValidMove() {
+        Mino mino = playManager.getCurrentMino();
+        return playManager.checkValidMove(mino.type, mino.rotation, mino.x, mino.y + 1);
+    }
+
+    // 조각 교체만 측정. 정상 상태에서 0 B/op 이어야 함
+    @Benchmark
+    public int spawnNewMino() {
+        playManager.spawnNewMino();
+        return playManager.getCurrentMino().type;
+    }
+
+    // clearLines/낙하 벤치마크가 매번 보드를 되돌리는 비용. 결과에서 빼서 본다
+    @Benchmark
+    public int loadBoard() {
+        playManager.loadBoard(rows);
+        return playManager.getCurrentMino().y;
+    }
+
+    @Benchmark
+    public int clearLines() {
+        playManager.loadBoard(rows);
+        playManager.clearLines();
+        return playManager.getLines();
+    }
+
+    // 조각 하나를 돌리고 옮긴 뒤 고정될 때까지 떨어뜨림 (고정, 줄 삭제, 다음 조각 생성 포함)
+    @Benchmark
+    public int dropSequence() {
+        playManager.loadBoard(rows);
+        int pieces = playManager.getPieces();
+        playManager.apply(Action.ROTATE);
+        playManager.apply(Action.LEFT);
+        playManager.apply(Action.LEFT);
+        while (playManager.getPieces() == pieces && !playManager.isGameOver()) {
+            playManager.tick();
+        }
+        return playManager.getScore();
+    }
+}
@@ -0,0 +1,82 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// 기록이 많아도 점수 기록의 열기와 조회가 빠른지 확인. 임시 폴더에 records 개를 채운 뒤
+// 열기(꼬리만 읽음), 상위 10개, 플레이어 최고 기록, 순위, fsync 없는 덧붙이기를 잰다
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreStoreBenchmark {
+    @Param({"10000", "1000000"})
+    public int records;
+
+    private Path dir;
+    private ScoreStore store;
+    private final SplittableRandom random = new SplittableRandom(11);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("scores");
+        store = ScoreStore.open(dir.resolve("scores.dat"), false);
+        for (int i = 0; i < records; i++) {
+            append();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private ScoreStore.Entry append() throws IOException {
+        int score = random.nextInt(1_000_000);
+        return store.append("p" + random.nextInt(1000), new GameResult(random.nextLong(), score, score / 100,
+                score / 40), 60_000, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public long open() throws IOException {
+        try (ScoreStore reopened = ScoreStore.open(dir.resolve("scores.dat"), false)) {
+            return reopened.size();
+        }
+    }
+
+    @Benchmark
+    public List<ScoreStore.Entry> top10() throws IOException {
+        return store.top(10);
+    }
+
+    @Benchmark
+    public ScoreStore.Entry best() throws IOException {
+        return store.best("p" + random.nextInt(1000));
+    }
+
+    @Benchmark
+    public long rank() {
+        return store.rank(random.nextInt(1_000_000));
+    }
+
+    // 꼬리가 REBUILD_TAIL 개가 될 때마다 색인을 다시 쓰는 비용까지 나눠 들어간다
+    @Benchmark
+    public ScoreStore.Entry appendNoSync() throws IOException {
+        return append();
+    }
+}
@@ -0,0 +1,98 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 두 조각(T 다음 I) 전체 탐색: 노드마다 보드를 복사하는 방식과 make/unmake 방식 비교
+// 고정 위치 목록은 Setup 에서 미리 구해 두므로 놓기/평가/되돌리기 비용만 잰다. 노드 수는 nodes 보조 카운터로 나옴
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    private static final int FIRST = 5;
+    private static final int SECOND = 0;
+
+    @Param({"EMPTY", "HALF_FULL", "NEAR_TOP_OUT"})
+    public BoardFixture fixture;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    private Board board;
+    private final int[] heights = new int[64];
+    private final UndoLog log = new UndoLog();
+    // first[i] = 첫 조각의 i번째 고정 위치 (rotation, x, y), second[i] = 그 뒤 두 번째 조각의 고정 위치들
+    private int[][] first;
+    private int[][][] second;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new Board(20, 10, BoardMode.BITBOARD);
+        board.load(fixture.rows(board.getRows(), board.getCols()));
+
+        Placements placements = new Placements();
+        int[] out = new int[(board.getCols() + 4) * (board.getRows() + 4) * Mino.ROTATIONS];
+        first = decode(placements, placements.enumerate(board, FIRST, 0, board.getCols() / 2, 0, out), out);
+        second = new int[first.length][][];
+        for (int i = 0; i < first.length; i++) {
+            Board after = board.copy();
+            after.lock(FIRST, first[i][0], first[i][1], first[i][2]);
+            after.clearLines();
+            second[i] = decode(placements, placements.enumerate(after, SECOND, 0, after.getCols() / 2, 0, out), out);
+        }
+    }
+
+    private static int[][] decode(Placements placements, int count, int[] out) {
+        int[][] states = new int[count][];
+        for (int i = 0; i < count; i++) {
+            states[i] = new int[] {placements.rotation(out[i]), placements.x(out[i]), placements.y(out[i])};
+        }
+        return states;
+    }
+
+    @Benchmark
+    public double copySearch(Nodes counter) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < first.length; i++) {
+            Board a = board.copy();
+            a.lock(FIRST, first[i][0], first[i][1], first[i][2]);
+            int lines = a.clearLines();
+            for (int[] p : second[i]) {
+                Board b = a.copy();
+                b.lock(SECOND, p[0], p[1], p[2]);
+                int more = b.clearLines();
+                best = Math.max(best, Heuristic.DEFAULT.evaluate(b, lines + more, heights));
+            }
+            counter.nodes += 1 + second[i].length;
+        }
+        return best;
+    }
+
+    @Benchmark
+    public double makeUnmakeSearch(Nodes counter) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < first.length; i++) {
+            int lines = board.make(FIRST, first[i][0], first[i][1], first[i][2], log);
+            for (int[] p : second[i]) {
+                int more = board.make(SECOND, p[0], p[1], p[2], log);
+                best = Math.max(best, Heuristic.DEFAULT.evaluate(board, lines + more, heights));
+                board.unmake(log);
+            }
+            board.unmake(log);
+            counter.nodes += 1 + second[i].length;
+        }
+        return best;
+    }
+}
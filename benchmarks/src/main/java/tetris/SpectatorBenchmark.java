@@ -0,0 +1,77 @@
+package tetris;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// 관전 프레임 인코딩 비용: 봇 게임에서 미리 뽑은 연속 스냅샷을 델타로 쓸 때와 전체를 쓸 때
+// 보낸 바이트는 bytes 보조 카운터로 나오므로 ops 로 나누면 프레임당 크기. 소켓 팬아웃은 SpectatorLoadTest 로 잰다
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpectatorBenchmark {
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    private Snapshot[] states;
+    private final ByteBuffer out = ByteBuffer.allocate(Protocol.MAX_FRAME);
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 봇이 조각을 자리로 옮긴 뒤 틱마다 한 칸씩 내리는 게임 (줄 삭제 포함)
+        PlayManager playManager = new PlayManager(1);
+        AutoPlayer bot = new AutoPlayer(Heuristic.DEFAULT, ForkJoinPool.commonPool(), 0, new TranspositionTable(12));
+        List<Snapshot> list = new ArrayList<>();
+        int decided = -1;
+        while (list.size() < 4096 && !playManager.isGameOver()) {
+            if (playManager.getPieces() != decided) {
+                decided = playManager.getPieces();
+                AutoPlayer.Decision decision = bot.decide(playManager.snapshot());
+                for (Action action : decision.path()) {
+                    playManager.apply(action);
+                }
+            } else {
+                playManager.apply(Action.SOFT_DROP);
+            }
+            playManager.step();
+            list.add(playManager.snapshot());
+        }
+        states = list.toArray(new Snapshot[0]);
+    }
+
+    @Benchmark
+    public int delta(Bytes counter) {
+        int i = index;
+        index = i + 1 == states.length ? 1 : i + 1;
+        out.clear();
+        SnapshotDelta.write(states[i == 0 ? 0 : i - 1], states[i], out);
+        counter.bytes += out.position();
+        return out.position();
+    }
+
+    @Benchmark
+    public int full(Bytes counter) {
+        int i = index;
+        index = i + 1 == states.length ? 0 : i + 1;
+        out.clear();
+        states[i].writeTo(out);
+        counter.bytes += out.position();
+        return out.position();
+    }
+}
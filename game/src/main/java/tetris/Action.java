@@ -0,0 +1,6 @@
+package tetris;
+
+// 엔진에 적용할 수 있는 플레이어 입력. 순서(ordinal)가 네트워크와 리플레이 형식에 들어가므로 뒤에만 붙인다
+public enum Action {
+    LEFT, RIGHT, SOFT_DROP, ROTATE, HARD_DROP
+}
@@ -0,0 +1,98 @@
+package tetris;
+
+import java.awt.*;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// 능동 렌더링 스레드: 목표 프레임 속도에 맞춰 가장 최근 스냅샷을 FrameSink 에 그린다
+public class ActiveRenderLoop implements Runnable {
+    private final long frameNanos;
+    private final Supplier<Snapshot> source;
+    private final Renderer renderer;
+    private final FrameSink sink;
+    private final FrameSink.Painter painter = this::paint;
+    // 시계와 그 시각까지 기다리기. 테스트에서는 가짜 시간을 넣음
+    private final LongSupplier clock;
+    private final LongConsumer waitUntil;
+    // 예정 시각보다 늦게 시작한 정도, 한 프레임을 그리는 데 걸린 시간
+    private final LatencyStats pacing;
+    private final LatencyStats frameTime;
+    private Consumer<ActiveRenderLoop> reporter;
+    private long reportNanos;
+    private Snapshot state;
+    private volatile boolean running = true;
+
+    public ActiveRenderLoop(int frameRate, Supplier<Snapshot> source, Renderer renderer, FrameSink sink) {
+        this(frameRate, source, renderer, sink, System::nanoTime, FixedStepLoop::waitUntil);
+    }
+
+    ActiveRenderLoop(int frameRate, Supplier<Snapshot> source, Renderer renderer, FrameSink sink,
+                     LongSupplier clock, LongConsumer waitUntil) {
+        this.clock = clock;
+        this.waitUntil = waitUntil;
+        this.frameNanos = 1_000_000_000L / frameRate;
+        this.source = source;
+        this.renderer = renderer;
+        this.sink = sink;
+        this.pacing = new LatencyStats(frameNanos);
+        this.frameTime = new LatencyStats(frameNanos);
+    }
+
+    // 렌더 스레드에서 intervalNanos 마다 통계를 넘기고 초기화한다
+    public void setReporter(long intervalNanos, Consumer<ActiveRenderLoop> reporter) {
+        this.reportNanos = intervalNanos;
+        this.reporter = reporter;
+    }
+
+    public LatencyStats getPacing() {
+        return pacing;
+    }
+
+    public LatencyStats getFrameTime() {
+        return frameTime;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    private void paint(Graphics2D g2, GraphicsConfiguration config) {
+        renderer.paint(g2, state, config);
+    }
+
+    @Override
+    public void run() {
+        long nextFrame = clock.getAsLong();
+        long nextReport = nextFrame + reportNanos;
+
+        while (running) {
+            long start = clock.getAsLong();
+            pacing.record(start - nextFrame);
+
+            state = source.get();
+            if (sink.present(painter)) {
+                frameTime.record(clock.getAsLong() - start);
+            }
+
+            nextFrame += frameNanos;
+            long now = clock.getAsLong();
+            if (nextFrame < now) {
+                // 한 프레임 이상 밀리면 따라잡지 않고 다음 주기에 맞춤
+                long behind = (now - nextFrame) / frameNanos + 1;
+                pacing.drop(behind);
+                nextFrame += behind * frameNanos;
+            }
+
+            if (reporter != null && now >= nextReport) {
+                reporter.accept(this);
+                pacing.reset();
+                frameTime.reset();
+                nextReport = now + reportNanos;
+            }
+
+            waitUntil.accept(nextFrame);
+        }
+    }
+}
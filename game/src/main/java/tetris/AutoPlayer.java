@@ -0,0 +1,240 @@
+package tetris;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+// 현재 조각과 다음 조각의 모든 고정 위치 조합을 ForkJoinPool 에서 병렬로 평가해 가장 좋은 수를 고른다
+// 한 AutoPlayer 는 한 번에 한 게임의 결정만 내린다 (decide 를 동시에 부르지 않음)
+public class AutoPlayer {
+    // 다음 조각을 놓을 자리가 없는(게임이 끝나는) 수의 점수
+    private static final double TOP_OUT = -1e9;
+
+    public record Decision(int rotation, int x, int y, double score, Action[] path, long nodes, long nanos) {
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+    }
+
+    // 탐색 스레드마다 재사용하는 작업 공간
+    private static final class Workspace {
+        final Placements placements = new Placements();
+        final UndoLog log = new UndoLog();
+        int[] out = new int[0];
+        int[] heights = new int[0];
+
+        void ensureCapacity(Board board) {
+            int states = (board.getCols() + 4) * (board.getRows() + 4) * Mino.ROTATIONS;
+            if (out.length < states) {
+                out = new int[states];
+            }
+            if (heights.length < board.getCols()) {
+                heights = new int[board.getCols()];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private final Heuristic heuristic;
+    private final ForkJoinPool pool;
+    private final long budgetNanos;
+    // 보드 점수(깊이 0)와 다음 조각 하나를 둔 뒤의 최고 점수(깊이 1)를 모든 워커가 함께 캐시
+    private final TranspositionTable table;
+    // 루트 조각 탐색은 경로 복원에 다시 쓰므로 워커 스레드 작업 공간과 따로 둔다
+    private final Placements root = new Placements();
+    private int[] rootOut = new int[0];
+    private long totalNodes;
+    private long totalNanos;
+
+    public AutoPlayer(Heuristic heuristic, ForkJoinPool pool, long budgetNanos) {
+        this(heuristic, pool, budgetNanos, new TranspositionTable(16));
+    }
+
+    // table 은 같은 Heuristic 을 쓰는 AutoPlayer 끼리만 공유해야 한다
+    public AutoPlayer(Heuristic heuristic, ForkJoinPool pool, long budgetNanos, TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.pool = pool;
+        this.budgetNanos = budgetNanos;
+        this.table = table;
+    }
+
+    public Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // 지금까지 내린 모든 결정의 평균 탐색 속도
+    public double getNodesPerSecond() {
+        return totalNanos == 0 ? 0 : totalNodes * 1e9 / totalNanos;
+    }
+
+    public long getTotalNodes() {
+        return totalNodes;
+    }
+
+    public Decision decide(Snapshot state) {
+        return decide(Board.fromSnapshot(state), state.getCurrentType(), state.getCurrentRotation(),
+                state.getCurrentX(), state.getCurrentY(), state.getNextType());
+    }
+
+    // (rotation, x, y) 에 있는 type 조각을 어디에 놓을지 고른다. 놓을 곳이 없으면 null
+    public Decision decide(Board board, int type, int rotation, int x, int y, int nextType) {
+        long start = System.nanoTime();
+        // 예산이 0 이하면 시간 제한 없이 끝까지 탐색 (같은 시드면 항상 같은 수)
+        long deadline = budgetNanos > 0 ? start + budgetNanos : Long.MAX_VALUE;
+        table.newSearch();
+
+        int states = (board.getCols() + 4) * (board.getRows() + 4) * Mino.ROTATIONS;
+        if (rootOut.length < states) {
+            rootOut = new int[states];
+        }
+        int count = root.enumerate(board, type, rotation, x, y, rootOut);
+        if (count == 0) {
+            return null;
+        }
+
+        int[] rotations = new int[count];
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            rotations[i] = root.rotation(rootOut[i]);
+            xs[i] = root.x(rootOut[i]);
+            ys[i] = root.y(rootOut[i]);
+        }
+        double[] scores = new double[count];
+        LongAdder nodes = new LongAdder();
+        pool.invoke(new Search(board, type, nextType, rotations, xs, ys, scores, 0, count, deadline, nodes));
+
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long searched = nodes.sum();
+        totalNodes += searched;
+        totalNanos += nanos;
+        return new Decision(rotations[best], xs[best], ys[best], scores[best], root.path(rootOut[best]), searched, nanos);
+    }
+
+    // 현재 조각을 고른 자리까지 옮긴 뒤 하드 드롭으로 고정한다
+    public Decision playMove(PlayManager playManager) {
+        Mino mino = playManager.getCurrentMino();
+        Decision decision = decide(playManager.getBoard(), mino.type, mino.rotation, mino.x, mino.y,
+                playManager.getNextMino().type);
+        if (decision != null) {
+            for (Action action : decision.path()) {
+                playManager.apply(action);
+            }
+        }
+        playManager.apply(Action.HARD_DROP);
+        return decision;
+    }
+
+    // 루트 수 [from, to) 를 반으로 나눠 가며 평가. 잎 하나는 루트 수 하나와 그 아래 다음 조각의 모든 자리
+    private final class Search extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int type;
+        private final int nextType;
+        private final int[] rotations;
+        private final int[] xs;
+        private final int[] ys;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+        private final long deadline;
+        private final LongAdder nodes;
+
+        Search(Board board, int type, int nextType, int[] rotations, int[] xs, int[] ys, double[] scores,
+               int from, int to, long deadline, LongAdder nodes) {
+            this.board = board;
+            this.type = type;
+            this.nextType = nextType;
+            this.rotations = rotations;
+            this.xs = xs;
+            this.ys = ys;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.nodes = nodes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                scores[from] = evaluate(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Search(board, type, nextType, rotations, xs, ys, scores, from, mid, deadline, nodes),
+                    new Search(board, type, nextType, rotations, xs, ys, scores, mid, to, deadline, nodes));
+        }
+
+        // 시간이 남아 있으면 두 수 앞까지, 아니면 한 수만 본 점수
+        // 잎마다 보드를 한 번만 복사하고, 다음 조각의 자리들은 make/unmake 로 놓아 보고 되돌린다
+        private double evaluate(int i) {
+            Workspace workspace = WORKSPACE.get();
+            workspace.ensureCapacity(board);
+            UndoLog log = workspace.log;
+
+            Board first = board.copy();
+            int firstLines = first.make(type, rotations[i], xs[i], ys[i], log);
+            nodes.increment();
+            double lineScore = heuristic.linesCleared() * firstLines;
+
+            // 다음 조각을 둔 뒤의 최고 점수는 첫 수에서 지운 줄 수와 상관없으므로 그대로 캐시
+            long key = Zobrist.position(first.hash(), nextType);
+            double cached = table.probe(key, 1);
+            if (!Double.isNaN(cached)) {
+                return cached == TOP_OUT ? TOP_OUT : lineScore + cached;
+            }
+            if (System.nanoTime() >= deadline) {
+                return lineScore + boardScore(first, workspace);
+            }
+
+            int count = workspace.placements.enumerate(first, nextType, 0, first.getCols() / 2, 0, workspace.out);
+            if (count == 0) {
+                table.store(key, 1, TOP_OUT);
+                return TOP_OUT;
+            }
+            double best = Double.NEGATIVE_INFINITY;
+            boolean complete = true;
+            for (int j = 0; j < count; j++) {
+                if ((j & 15) == 15 && System.nanoTime() >= deadline) {
+                    complete = false;
+                    break;
+                }
+                int state = workspace.out[j];
+                int secondLines = first.make(nextType, workspace.placements.rotation(state),
+                        workspace.placements.x(state), workspace.placements.y(state), log);
+                best = Math.max(best, heuristic.linesCleared() * secondLines + boardScore(first, workspace));
+                first.unmake(log);
+                nodes.increment();
+            }
+            log.clear();
+            // 캐시에서 읽은 값과 똑같도록 float 로 맞춤. 캐시 적중 여부와 상관없이 같은 수를 고르게 된다
+            best = (float) best;
+            if (complete) {
+                table.store(key, 1, best);
+            }
+            return lineScore + best;
+        }
+
+        private double boardScore(Board board, Workspace workspace) {
+            double score = table.probe(board.hash(), 0);
+            if (Double.isNaN(score)) {
+                score = (float) heuristic.evaluateBoard(board, workspace.heights);
+                table.store(board.hash(), 0, score);
+            }
+            return score;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package tetris;
+
+import java.util.Arrays;
+
+// 게임 보드. int[][] 배열과 행 비트마스크 중 BoardMode 가 고른 쪽(또는 둘 다)을 유지한다
+public class Board {
+    private final int rows;
+    private final int cols;
+    private final BoardMode mode;
+    private final int[][] cells;
+    // 비트보드 행 링 버퍼: 논리 행 y 는 rowBits[(head + y) % rows] (x열 = x번째 비트)
+    private final long[] rowBits;
+    private int head = 0;
+    private final long fullRow;
+    // 차 있는 칸의 Zobrist 키 XOR. lock, 줄 삭제, unmake, load 때 바뀐 행만큼만 갱신
+    private final Zobrist zobrist;
+    private long hash = 0;
+    // 이 행보다 위(y < surface)는 모두 빈 행. 블록이 놓이면 바로 낮추고, 빈 행이 되면 getSurface 가 다시 좁힌다
+    // 줄 삭제, 높이, 구멍 계산이 보드 전체가 아니라 쌓인 높이만큼만 훑게 해 준다 (아주 높은 보드용)
+    private int surface;
+    // 열마다 가장 위 블록의 행 (빈 열은 rows). lock, 줄 삭제, setRow 때 바뀐 열만 고치고,
+    // 맨 위 블록이 없어진 열만 그 아래로 다시 찾는다. 하드 드롭과 고스트 조각이 O(조각 너비)로 떨어질 자리를 찾게 해 준다
+    private final int[] tops;
+
+    public Board(int rows, int cols, BoardMode mode) {
+        if (cols < 4 || cols > 64 || rows < 4) {
+            throw new IllegalArgumentException("board must be 4..64 columns and at least 4 rows, got " + cols + "x" + rows);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.mode = mode;
+        this.cells = mode == BoardMode.BITBOARD ? null : new int[rows][cols];
+        this.rowBits = new long[rows];
+        this.fullRow = cols == 64 ? -1L : (1L << cols) - 1;
+        this.zobrist = Zobrist.of(rows, cols);
+        this.surface = rows;
+        this.tops = new int[cols];
+        Arrays.fill(tops, rows);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public BoardMode getMode() {
+        return mode;
+    }
+
+    // 가장 높은 블록이 있는 행. 비어 있으면 rows
+    public int getSurface() {
+        while (surface < rows && row(surface) == 0) {
+            surface++;
+        }
+        return surface;
+    }
+
+    // x열의 가장 위 블록이 있는 행. 빈 열이면 rows
+    public int columnTop(int x) {
+        return tops[x];
+    }
+
+    // (x, y) 에 있는 조각을 그대로 떨어뜨렸을 때 멈추는 y. 조각이 모든 열에서 그 열의 맨 위 블록보다 위에 있으면
+    // 열마다 (맨 위 블록 - 조각의 가장 아래 칸) 거리의 최솟값만큼 내려가므로 O(조각 너비)
+    // 튀어나온 블록 아래로 밀어 넣은 조각처럼 어느 열에서든 이미 맨 위 블록보다 아래면 한 칸씩 내려 본다
+    public int dropY(int type, int rotation, int x, int y) {
+        int shape = Mino.shape(type, rotation);
+        int left = x + Mino.MIN_DX[shape];
+        int distance = Integer.MAX_VALUE;
+        for (int c = 0; c < Mino.WIDTH[shape]; c++) {
+            int bottom = y + Mino.BOTTOM_DY[shape * 4 + c];
+            int top = tops[left + c];
+            if (bottom >= top) {
+                distance = -1;
+                break;
+            }
+            distance = Math.min(distance, top - 1 - bottom);
+        }
+        int fast = y + distance;
+        if (distance < 0 || mode == BoardMode.CROSS_CHECK) {
+            int slow = y;
+            while (fits(type, rotation, x, slow + 1)) {
+                slow++;
+            }
+            if (distance >= 0 && fast != slow) {
+                throw new IllegalStateException("drop mismatch for " + Mino.NAMES[type]);
+            }
+            return slow;
+        }
+        return fast;
+    }
+
+    // 보드 내용만의 Zobrist 해시. 조각까지 넣으려면 Zobrist.position
+    public long hash() {
+        return hash;
+    }
+
+    private int index(int y) {
+        int i = head + y;
+        return i >= rows ? i - rows : i;
+    }
+
+    // 논리 행 y 의 비트마스크
+    public long row(int y) {
+        return mode == BoardMode.ARRAY ? arrayRow(y) : rowBits[index(y)];
+    }
+
+    private long arrayRow(int y) {
+        long bits = 0;
+        for (int x = 0; x < cols; x++) {
+            bits |= (long) cells[y][x] << x;
+        }
+        return bits;
+    }
+
+    public boolean isFilled(int x, int y) {
+        if (mode == BoardMode.ARRAY) {
+            return cells[y][x] == 1;
+        }
+        return (rowBits[index(y)] & (1L << x)) != 0;
+    }
+
+    public boolean fits(int type, int rotation, int x, int y) {
+        return switch (mode) {
+            case ARRAY -> fitsArray(type, rotation, x, y);
+            case BITBOARD -> fitsBits(type, rotation, x, y);
+            case CROSS_CHECK -> {
+                boolean valid = fitsArray(type, rotation, x, y);
+                if (valid != fitsBits(type, rotation, x, y)) {
+                    throw new IllegalStateException("board mismatch for " + Mino.NAMES[type]);
+                }
+                yield valid;
+            }
+        };
+    }
+
+    private boolean fitsArray(int type, int rotation, int x, int y) {
+        for (int i = 0; i < 4; i++) {
+            int gridX = x + Mino.dx(type, rotation, i);
+            int gridY = y + Mino.dy(type, rotation, i);
+
+            if (gridX < 0 || gridX >= cols || gridY >= rows || (gridY >= 0 && cells[gridY][gridX] == 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 미리 계산한 조각 행 마스크를 보드 행과 AND 해서 충돌 검사
+    private boolean fitsBits(int type, int rotation, int x, int y) {
+        int shape = Mino.shape(type, rotation);
+        int left = x + Mino.MIN_DX[shape];
+        if (left < 0 || left + Mino.WIDTH[shape] > cols) {
+            return false;
+        }
+        int top = y + Mino.MIN_DY[shape];
+        int height = Mino.HEIGHT[shape];
+        if (top + height > rows) {
+            return false;
+        }
+        for (int k = 0; k < height; k++) {
+            int row = top + k;
+            if (row >= 0 && (rowBits[index(row)] & (Mino.ROW_MASKS[shape * 4 + k] << left)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 보드 위쪽(y < 0)으로 삐져나온 칸은 버린다
+    public void lock(int type, int rotation, int x, int y) {
+        for (int i = 0; i < 4; i++) {
+            int gridX = x + Mino.dx(type, rotation, i);
+            int gridY = y + Mino.dy(type, rotation, i);
+            if (gridY >= 0) {
+                surface = Math.min(surface, gridY);
+                tops[gridX] = Math.min(tops[gridX], gridY);
+                hash ^= zobrist.cell(gridX, gridY);
+                if (mode != BoardMode.BITBOARD) {
+                    cells[gridY][gridX] = 1;
+                }
+                if (mode != BoardMode.ARRAY) {
+                    rowBits[index(gridY)] |= 1L << gridX;
+                }
+            }
+        }
+    }
+
+    // 꽉 찬 줄을 한 번에 모두 지우고 지운 줄 수를 돌려준다. 할당 없음
+    // 가장 아래 꽉 찬 줄 hi 보다 아래 행은 그대로이므로 해시는 0..hi 행의 기여분만 빼고 다시 더한다
+    public int clearLines() {
+        int top = getSurface();
+        int hi = rows - 1;
+        while (hi >= top && row(hi) != fullRow) {
+            hi--;
+        }
+        if (hi < top) {
+            return 0;
+        }
+        // 지울 줄: hi 에서 k 행 위면 k번째 비트. 64행 넘게 떨어진 줄까지 있으면 열 높이를 통째로 다시 구함
+        long full = 0;
+        boolean far = false;
+        for (int y = hi; y >= top; y--) {
+            if (row(y) == fullRow) {
+                if (hi - y < 64) {
+                    full |= 1L << (hi - y);
+                } else {
+                    far = true;
+                }
+            }
+        }
+        hash ^= rowsHash(hi);
+        int cleared = switch (mode) {
+            case ARRAY -> clearLinesArray();
+            case BITBOARD -> clearLinesBits();
+            case CROSS_CHECK -> {
+                int count = clearLinesArray();
+                if (count != clearLinesBits()) {
+                    throw new IllegalStateException("board mismatch while clearing lines");
+                }
+                yield count;
+            }
+        };
+        hash ^= rowsHash(hi);
+        surface = Math.min(rows, surface + cleared);
+        if (far) {
+            rescanTops(fullRow, surface);
+        } else {
+            updateTops(hi, full);
+        }
+        if (mode == BoardMode.CROSS_CHECK) {
+            for (int y = 0; y < rows; y++) {
+                if (arrayRow(y) != rowBits[index(y)]) {
+                    throw new IllegalStateException("board mismatch on row " + y);
+                }
+            }
+            if (hash != rowsHash(rows - 1)) {
+                throw new IllegalStateException("board hash mismatch");
+            }
+            int[] expected = tops.clone();
+            rescanTops(fullRow, 0);
+            if (!Arrays.equals(expected, tops)) {
+                throw new IllegalStateException("column tops mismatch");
+            }
+        }
+        return cleared;
+    }
+
+    // 줄 삭제 뒤 열 높이 갱신. 지운 줄보다 위에 맨 위 블록이 있던 열은 그 아래에서 지운 줄 수만큼 내려가고,
+    // 맨 위 블록이 지운 줄에 있던 열만 새 자리에서 아래로 다시 찾는다
+    private void updateTops(int hi, long full) {
+        long rescan = 0;
+        int from = rows;
+        for (int x = 0; x < cols; x++) {
+            int t = tops[x];
+            if (t > hi) {
+                continue;
+            }
+            int d = hi - t;
+            long below = d >= 64 ? full : full & ((1L << d) - 1);
+            if (d < 64 && (full >>> d & 1) != 0) {
+                rescan |= 1L << x;
+                // 지운 줄 위 칸은 없었으므로 t 와 그 아래 지운 줄 수만큼 내려간 자리보다 위에는 블록이 없음
+                from = Math.min(from, t + Long.bitCount(below) + 1);
+            } else {
+                tops[x] = t + Long.bitCount(below);
+            }
+        }
+        if (rescan != 0) {
+            rescanTops(rescan, from);
+        }
+    }
+
+    // columns 에 든 열의 맨 위 블록을 from 행부터 아래로 찾음 (모두 찾으면 바로 멈춤)
+    private void rescanTops(long columns, int from) {
+        for (int y = from; y < rows && columns != 0; y++) {
+            long found = row(y) & columns;
+            columns &= ~found;
+            while (found != 0) {
+                tops[Long.numberOfTrailingZeros(found)] = y;
+                found &= found - 1;
+            }
+        }
+        while (columns != 0) {
+            tops[Long.numberOfTrailingZeros(columns)] = rows;
+            columns &= columns - 1;
+        }
+    }
+
+    // 0..last 행의 Zobrist 기여분 (surface 위는 빈 행이라 건너뜀)
+    private long rowsHash(int last) {
+        long h = 0;
+        for (int y = surface; y <= last; y++) {
+            long bits = row(y);
+            if (bits != 0) {
+                h ^= zobrist.row(y, bits);
+            }
+        }
+        return h;
+    }
+
+    // 아래에서 위로 한 번 훑으며 안 찬 줄의 배열 참조만 아래로 모으고, 찬 줄 배열은 비워서 맨 위에 재사용
+    private int clearLinesArray() {
+        int write = rows - 1;
+        for (int read = rows - 1; read >= surface; read--) {
+            if (!isFullArrayRow(cells[read])) {
+                int[] row = cells[write];
+                cells[write] = cells[read];
+                cells[read] = row;
+                write--;
+            }
+        }
+        for (int y = surface; y <= write; y++) {
+            Arrays.fill(cells[y], 0);
+        }
+        return write + 1 - surface;
+    }
+
+    private boolean isFullArrayRow(int[] row) {
+        for (int x = 0; x < cols; x++) {
+            if (row[x] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 지울 줄 범위(lo..hi) 위쪽과 아래쪽 중 옮길 행이 적은 쪽만 한 번에 압축한다. 위쪽은 surface 까지만 옮기면 됨
+    private int clearLinesBits() {
+        int count = 0, lo = -1, hi = -1;
+        for (int y = surface; y < rows; y++) {
+            if (rowBits[index(y)] == fullRow) {
+                if (lo < 0) {
+                    lo = y;
+                }
+                hi = y;
+                count++;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        if (hi + 1 - surface <= rows - lo) {
+            // 위쪽 행을 count 칸 내림
+            int write = hi;
+            for (int read = hi; read >= surface; read--) {
+                long bits = rowBits[index(read)];
+                if (bits != fullRow) {
+                    rowBits[index(write--)] = bits;
+                }
+            }
+            for (; write >= surface; write--) {
+                rowBits[index(write)] = 0;
+            }
+        } else {
+            // 아래쪽 행을 count 칸 올린 뒤, 비게 된 맨 아래 count 개 슬롯이 맨 위가 되도록 head 를 돌림
+            int write = lo;
+            for (int read = lo; read < rows; read++) {
+                long bits = rowBits[index(read)];
+                if (bits != fullRow) {
+                    rowBits[index(write++)] = bits;
+                }
+            }
+            for (; write < rows; write++) {
+                rowBits[index(write)] = 0;
+            }
+            head = index(rows - count);
+        }
+        return count;
+    }
+
+    // 조각을 고정하고 지운 줄 수를 돌려준다
+    // 꽉 찬 줄은 새로 놓은 조각이 걸친 행에서만 생기므로(놓기 전에는 꽉 찬 줄이 없음) 그 행들만 보고, 생겼을 때만 줄을 지운다
+    public int place(int type, int rotation, int x, int y) {
+        int shape = Mino.shape(type, rotation);
+        int top = Math.max(0, y + Mino.MIN_DY[shape]);
+        int bottom = Math.max(top, y + Mino.MIN_DY[shape] + Mino.HEIGHT[shape]);
+        lock(type, rotation, x, y);
+        for (int row = top; row < bottom; row++) {
+            if (row(row) == fullRow) {
+                return clearLines();
+            }
+        }
+        return 0;
+    }
+
+    // place 와 같고, 조각이 걸친 행의 이전 값과 지운 줄 수만 log 에 남긴다
+    public int make(int type, int rotation, int x, int y, UndoLog log) {
+        int shape = Mino.shape(type, rotation);
+        int top = Math.max(0, y + Mino.MIN_DY[shape]);
+        int bottom = Math.max(top, y + Mino.MIN_DY[shape] + Mino.HEIGHT[shape]);
+        for (int row = top; row < bottom; row++) {
+            log.push(row(row));
+        }
+        int cleared = place(type, rotation, x, y);
+        log.push((long) top << 32 | (bottom - top) << 8 | cleared);
+        return cleared;
+    }
+
+    // 마지막 make 를 되돌린다. 지운 줄이 있으면 그 위 행들을 원래 자리로 올리고, 조각이 걸친 행을 복원
+    public void unmake(UndoLog log) {
+        long header = log.pop();
+        int top = (int) (header >>> 32);
+        int height = (int) (header >>> 8) & 0xFF;
+        int cleared = (int) header & 0xFF;
+        if (cleared > 0) {
+            // 지우기 전 surface 위는 비어 있었으므로 그 아래만 올리면 됨
+            for (int y = Math.max(0, surface - cleared); y < top; y++) {
+                setRow(y, row(y + cleared));
+            }
+        }
+        for (int k = height - 1; k >= 0; k--) {
+            setRow(top + k, log.pop());
+        }
+    }
+
+    private void setRow(int y, long bits) {
+        if (bits != 0 && y < surface) {
+            surface = y;
+        }
+        long old = row(y);
+        hash ^= zobrist.row(y, old) ^ zobrist.row(y, bits);
+        if (mode != BoardMode.ARRAY) {
+            rowBits[index(y)] = bits;
+        }
+        if (cells != null) {
+            for (int x = 0; x < cols; x++) {
+                cells[y][x] = (int) (bits >>> x) & 1;
+            }
+        }
+        long removed = 0;
+        for (long changed = old ^ bits; changed != 0; changed &= changed - 1) {
+            int x = Long.numberOfTrailingZeros(changed);
+            if ((bits >>> x & 1) != 0) {
+                tops[x] = Math.min(tops[x], y);
+            } else if (tops[x] == y) {
+                removed |= 1L << x;
+            }
+        }
+        if (removed != 0) {
+            rescanTops(removed, y + 1);
+        }
+    }
+
+    // 대전용: 전체를 count 줄 올리고 맨 아래에 hole 열만 빈 줄을 채운다. 위로 밀려난 칸이 있으면 false
+    public boolean addGarbage(int count, int hole) {
+        count = Math.min(count, rows);
+        boolean fits = true;
+        for (int y = 0; y < count; y++) {
+            if (row(y) != 0) {
+                fits = false;
+            }
+        }
+        for (int y = Math.max(0, surface - count); y < rows - count; y++) {
+            setRow(y, row(y + count));
+        }
+        long garbage = fullRow & ~(1L << hole);
+        for (int y = rows - count; y < rows; y++) {
+            setRow(y, garbage);
+        }
+        return fits;
+    }
+
+    // 각 열의 높이(바닥에서 가장 높은 칸까지)를 heights 에 채운다
+    public void columnHeights(int[] heights) {
+        for (int x = 0; x < cols; x++) {
+            heights[x] = rows - tops[x];
+        }
+    }
+
+    // 위에 블록이 있는 빈 칸 수
+    public int holes() {
+        long covered = 0;
+        int holes = 0;
+        for (int y = getSurface(); y < rows; y++) {
+            long bits = row(y);
+            holes += Long.bitCount(covered & ~bits);
+            covered |= bits;
+        }
+        return holes;
+    }
+
+    // 탐색용 복사본. 모드와 상관없이 비트보드로 만든다
+    public Board copy() {
+        Board copy = new Board(rows, cols, BoardMode.BITBOARD);
+        for (int y = surface; y < rows; y++) {
+            copy.rowBits[y] = row(y);
+        }
+        copy.hash = hash;
+        copy.surface = surface;
+        System.arraycopy(tops, 0, copy.tops, 0, cols);
+        return copy;
+    }
+
+    public static Board fromSnapshot(Snapshot state) {
+        Board board = new Board(state.getRows(), state.getCols(), BoardMode.BITBOARD);
+        for (int y = state.getTop(); y < state.getRows(); y++) {
+            board.rowBits[y] = state.row(y);
+        }
+        board.surface = state.getTop();
+        board.hash = board.rowsHash(board.rows - 1);
+        board.rescanTops(board.fullRow, board.surface);
+        return board;
+    }
+
+    // 벤치마크/재현용: 보드를 행 비트마스크로 덮어쓴다
+    public void load(long[] bits) {
+        head = 0;
+        surface = 0;
+        for (int y = 0; y < rows; y++) {
+            rowBits[y] = bits[y] & fullRow;
+            if (cells != null) {
+                for (int x = 0; x < cols; x++) {
+                    cells[y][x] = (int) (rowBits[y] >>> x) & 1;
+                }
+            }
+        }
+        hash = rowsHash(rows - 1);
+        rescanTops(fullRow, 0);
+    }
+}
@@ -0,0 +1,14 @@
+package tetris;
+
+// 보드 저장 방식: int[][] 배열, 행 비트마스크, 또는 둘 다 유지하며 결과 비교
+public enum BoardMode {
+    ARRAY, BITBOARD, CROSS_CHECK;
+
+    public static BoardMode fromProperty() {
+        return switch (System.getProperty("tetris.board", "bitboard")) {
+            case "array" -> ARRAY;
+            case "check" -> CROSS_CHECK;
+            default -> BITBOARD;
+        };
+    }
+}
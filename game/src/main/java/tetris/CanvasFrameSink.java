@@ -0,0 +1,44 @@
+package tetris;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+// BufferStrategy 페이지 넘김으로 그리는 Canvas. 렌더 스레드 하나만 present 를 부른다
+public class CanvasFrameSink extends Canvas implements FrameSink {
+    private static final long serialVersionUID = 1L;
+
+    private BufferStrategy strategy;
+
+    public CanvasFrameSink(int width, int height) {
+        setPreferredSize(new Dimension(width, height));
+        setBackground(Color.BLACK);
+        setIgnoreRepaint(true);
+        setFocusable(true);
+    }
+
+    @Override
+    public boolean present(Painter painter) {
+        if (strategy == null) {
+            if (!isDisplayable()) {
+                return false;
+            }
+            createBufferStrategy(2);
+            strategy = getBufferStrategy();
+        }
+
+        // 버퍼 내용이 사라지면 다시 그림 (BufferStrategy 권장 사용법)
+        do {
+            do {
+                Graphics2D g2 = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    painter.paint(g2, getGraphicsConfiguration());
+                } finally {
+                    g2.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+}
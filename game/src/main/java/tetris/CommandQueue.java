@@ -0,0 +1,82 @@
+package tetris;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 여러 입력 스레드 -> 시뮬레이션 스레드 하나로 가는 락 없는 고정 크기 큐 (MPSC)
+// 칸마다 순번을 두어 생산자는 CAS 로 자리를 잡고, 소비자는 순번만 보고 꺼낸다. 할당 없음
+public class CommandQueue {
+    private static final Action[] ACTIONS = Action.values();
+
+    public interface Handler {
+        void handle(Action action, long enqueuedNanos);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final int[] actions;
+    private final long[] enqueuedAt;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    // 소비자 스레드만 씀
+    private long head = 0;
+
+    // capacity 는 2의 거듭제곱
+    public CommandQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        sequence = new AtomicLongArray(capacity);
+        actions = new int[capacity];
+        enqueuedAt = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    // 큐가 꽉 차 있으면 false
+    public boolean offer(Action action, long nanos) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) pos & mask;
+            long diff = sequence.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    actions[i] = action.ordinal();
+                    enqueuedAt[i] = nanos;
+                    sequence.lazySet(i, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                rejected.incrementAndGet();
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // 큐가 차서 버려진 명령 수
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // 지금까지 들어온 명령을 순서대로 꺼내 handler 에 넘기고 꺼낸 개수를 돌려준다
+    public int drain(Handler handler) {
+        int count = 0;
+        while (true) {
+            int i = (int) head & mask;
+            if (sequence.get(i) != head + 1) {
+                return count;
+            }
+            Action action = ACTIONS[actions[i]];
+            long nanos = enqueuedAt[i];
+            sequence.lazySet(i, head + mask + 1);
+            head++;
+            handler.handle(action, nanos);
+            count++;
+        }
+    }
+}
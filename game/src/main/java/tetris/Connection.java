@@ -0,0 +1,145 @@
+package tetris;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+// 서버 쪽 클라이언트 연결 하나. 읽기는 선택자 스레드만, 쓰기는 세션 틱 스레드와 선택자 스레드가 함께 하므로 send/flush 는 동기화
+// 소켓이 바로 못 받은 바이트는 pending 에 모아 두고, 그 사이 새 STATE 프레임은 가장 최근 것 하나로 합친다 (느린 클라이언트)
+final class Connection {
+    // 이보다 밀리면 끊음
+    static final int MAX_PENDING = 64 * 1024;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer in = ByteBuffer.allocate(4096);
+    // 선택자 스레드가 JOIN 을 받을 때 정하고 세션 스레드가 읽음
+    volatile Session session;
+    volatile int playerIndex;
+    private volatile boolean closed = false;
+
+    private ByteBuffer pending = ByteBuffer.allocate(256);
+    // 보내지 못한 최신 STATE 프레임 (플레이어 번호별)
+    private final ByteBuffer[] latestState = new ByteBuffer[2];
+    private long coalesced;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    // frame 은 읽기 모드. state 이면 밀려 있을 때 이전 STATE 를 덮어씀. 동작 중 바이트는 복사하므로 호출자가 frame 을 재사용해도 됨
+    synchronized void send(ByteBuffer frame, int statePlayer) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (pending.position() == 0 && noLatest()) {
+                channel.write(frame);
+                if (!frame.hasRemaining()) {
+                    return;
+                }
+            }
+            if (statePlayer >= 0 && frame.position() == 0) {
+                ByteBuffer latest = latestState[statePlayer];
+                if (latest == null || latest.capacity() < frame.remaining()) {
+                    latest = ByteBuffer.allocate(Protocol.MAX_FRAME + 2);
+                    latestState[statePlayer] = latest;
+                } else if (latest.position() > 0) {
+                    coalesced++;
+                }
+                latest.clear();
+                latest.put(frame);
+            } else {
+                // 끝 프레임 같은 것은 합쳐 둔 STATE 뒤에 가도록 순서를 지킴
+                moveLatestToPending();
+                append(frame);
+                // 너무 밀려서 방금 끊었으면 키도 취소된 상태
+                if (closed) {
+                    return;
+                }
+            }
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            key.selector().wakeup();
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private boolean noLatest() {
+        for (ByteBuffer latest : latestState) {
+            if (latest != null && latest.position() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(ByteBuffer frame) {
+        if (pending.remaining() < frame.remaining()) {
+            int size = Math.max(pending.capacity() * 2, pending.position() + frame.remaining());
+            if (size > MAX_PENDING) {
+                close();
+                return;
+            }
+            ByteBuffer grown = ByteBuffer.allocate(size);
+            grown.put(pending.flip());
+            pending = grown;
+        }
+        pending.put(frame);
+    }
+
+    // 선택자 스레드: 소켓에 자리가 나면 밀린 바이트와 합쳐 둔 STATE 를 보냄
+    synchronized void flush() {
+        try {
+            moveLatestToPending();
+            if (closed) {
+                return;
+            }
+            pending.flip();
+            channel.write(pending);
+            pending.compact();
+            if (pending.position() == 0) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    private void moveLatestToPending() {
+        for (ByteBuffer latest : latestState) {
+            if (closed) {
+                return;
+            }
+            if (latest != null && latest.position() > 0) {
+                append(latest.flip());
+                latest.clear();
+            }
+        }
+    }
+
+    // 소켓에 아직 못 쓴 바이트 수
+    synchronized int getPending() {
+        return pending.position();
+    }
+
+    synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 이미 끊긴 연결
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package tetris;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+// System.nanoTime 기준 고정 간격 루프. 시뮬레이션 틱과 화면 프레임을 따로 예약한다
+public class FixedStepLoop implements Runnable {
+    // 한 번에 따라잡을 최대 틱 수. 이보다 밀리면 나머지는 버리고 jitter 에 기록
+    private static final int MAX_CATCH_UP = 5;
+    private static final long SPIN_NANOS = 1_000_000;
+
+    private final long tickNanos;
+    private final long frameNanos;
+    private final Runnable tick;
+    private final Runnable frame;
+    private final LatencyStats jitter;
+    private Consumer<LatencyStats> reporter;
+    private long reportNanos;
+    private volatile boolean running = true;
+
+    public FixedStepLoop(int tickRate, int frameRate, Runnable tick, Runnable frame) {
+        this.tickNanos = 1_000_000_000L / tickRate;
+        this.frameNanos = 1_000_000_000L / frameRate;
+        this.tick = tick;
+        this.frame = frame;
+        this.jitter = new LatencyStats(tickNanos);
+    }
+
+    // 루프 스레드에서 intervalNanos 마다 jitter 통계를 넘기고 초기화한다
+    public void setReporter(long intervalNanos, Consumer<LatencyStats> reporter) {
+        this.reportNanos = intervalNanos;
+        this.reporter = reporter;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long nextTick = start + tickNanos;
+        long nextFrame = start;
+        long nextReport = start + reportNanos;
+
+        while (running) {
+            long now = System.nanoTime();
+
+            int steps = 0;
+            while (now >= nextTick && steps < MAX_CATCH_UP && running) {
+                jitter.record(now - nextTick);
+                tick.run();
+                nextTick += tickNanos;
+                steps++;
+                long end = System.nanoTime();
+                Metrics.recordTick(end - now);
+                now = end;
+            }
+            if (now >= nextTick) {
+                long behind = (now - nextTick) / tickNanos + 1;
+                jitter.drop(behind);
+                nextTick += behind * tickNanos;
+            }
+
+            if (now >= nextFrame) {
+                frame.run();
+                nextFrame += frameNanos;
+                if (nextFrame < now) {
+                    nextFrame = now + frameNanos;
+                }
+            }
+
+            if (reporter != null && now >= nextReport) {
+                reporter.accept(jitter);
+                jitter.reset();
+                nextReport = now + reportNanos;
+            }
+
+            waitUntil(Math.min(nextTick, nextFrame));
+        }
+    }
+
+    // 대부분은 park 로 자고, 마지막 1ms 는 spin 해서 깨어나는 시각 오차를 줄임
+    static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package tetris;
+
+import java.awt.*;
+
+// 능동 렌더링이 한 프레임을 그려 내보내는 곳. 실제 화면(CanvasFrameSink) 또는 화면 없는 대역(ImageFrameSink)
+public interface FrameSink {
+    interface Painter {
+        void paint(Graphics2D g2, GraphicsConfiguration config);
+    }
+
+    // 한 프레임을 그려서 화면에 내보냄. 그릴 준비가 안 됐으면 false
+    boolean present(Painter painter);
+}
@@ -0,0 +1,5 @@
+package tetris;
+
+// 끝난 게임의 결과
+public record GameResult(long seed, int score, int lines, int pieces) {
+}
@@ -0,0 +1,205 @@
+package tetris;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 여러 게임을 한 JVM 에서 돌리는 서버. 선택자 스레드 하나가 모든 소켓을 읽고, 틱은 SessionScheduler 가 돌린다
+// 실행: java -cp tetris.jar tetris.GameServer [port] [작업 스레드 수]
+public final class GameServer implements Runnable, Closeable {
+    static final int TICK_RATE = 60;
+    private static final Action[] ACTIONS = Action.values();
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final SessionScheduler scheduler;
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final AtomicLong sessionsStarted = new AtomicLong();
+    // 대전 상대를 기다리는 연결 (선택자 스레드만 씀)
+    private Connection waiting;
+    private long waitingSeed;
+    private volatile boolean running = true;
+
+    public GameServer(InetSocketAddress address, int workers) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        scheduler = new SessionScheduler(workers, TICK_RATE);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public int getSessions() {
+        return scheduler.getSessions();
+    }
+
+    public long getSessionsStarted() {
+        return sessionsStarted.get();
+    }
+
+    public int getWorkers() {
+        return scheduler.getThreads();
+    }
+
+    public LatencyHistogram getTickLatency() {
+        return scheduler.tickLatency();
+    }
+
+    public void resetTickLatency() {
+        scheduler.resetLatency();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            if (running) {
+                throw new IllegalStateException("game server stopped", e);
+            }
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    // 선택자는 run 스레드에서만 닫음 (다른 스레드에서 닫으면 돌고 있는 선택 키 순회가 깨짐)
+    private void closeQuietly() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException ignored) {
+            // 끝내는 중
+        }
+    }
+
+    private void accept() throws IOException {
+        for (SocketChannel channel; (channel = server.accept()) != null; ) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    private void read(Connection connection) {
+        ByteBuffer in = connection.in;
+        try {
+            if (connection.channel.read(in) < 0) {
+                connection.close();
+                return;
+            }
+            in.flip();
+            for (int length; (length = Protocol.available(in)) > 0; ) {
+                int next = in.position() + 2 + length;
+                in.getShort();
+                handle(connection, in.get(), in);
+                in.position(next);
+            }
+            in.compact();
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+        }
+    }
+
+    private void handle(Connection connection, byte type, ByteBuffer in) {
+        switch (type) {
+            case Protocol.JOIN_SPRINT -> {
+                if (connection.session == null) {
+                    startSession(Session.Mode.SPRINT, in.getLong(), connection);
+                }
+            }
+            case Protocol.JOIN_VERSUS -> {
+                long seed = in.getLong();
+                if (connection.session != null || connection == waiting) {
+                    return;
+                }
+                if (waiting == null || waiting.isClosed()) {
+                    waiting = connection;
+                    waitingSeed = seed;
+                } else {
+                    Connection first = waiting;
+                    waiting = null;
+                    startSession(Session.Mode.VERSUS, waitingSeed, first, connection);
+                }
+            }
+            case Protocol.INPUT -> {
+                Session session = connection.session;
+                int action = in.get();
+                if (session != null && action >= 0 && action < ACTIONS.length) {
+                    session.players[connection.playerIndex].inputs.offer(ACTIONS[action], System.nanoTime());
+                }
+            }
+            default -> throw new IllegalStateException("unknown frame type " + type);
+        }
+    }
+
+    private void startSession(Session.Mode mode, long seed, Connection... connections) {
+        sessionsStarted.incrementAndGet();
+        scheduler.add(new Session(sessionIds.incrementAndGet(), mode, seed, connections));
+    }
+
+    // 소켓과 선택자는 run 이 빠져나오면서 닫는다
+    @Override
+    public void close() {
+        running = false;
+        scheduler.stop();
+        selector.wakeup();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7000;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        GameServer server = new GameServer(new InetSocketAddress(port), workers);
+        if (Metrics.ENABLED) {
+            Metrics.registerMBean();
+        }
+        Thread reporter = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                System.err.println("sessions=" + server.getSessions() + " tick latency: " + server.getTickLatency());
+                server.resetTickLatency();
+            }
+        }, "reporter");
+        reporter.setDaemon(true);
+        reporter.start();
+        System.err.println("listening on " + server.getPort() + " with " + workers + " session threads");
+        server.run();
+    }
+}
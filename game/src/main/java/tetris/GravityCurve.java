@@ -0,0 +1,62 @@
+package tetris;
+
+// 레벨별 중력 (틱당 내려가는 줄 수). 1보다 작으면 여러 틱에 한 줄, 20이면 한 틱에 바닥까지(20G)
+public final class GravityCurve {
+    public static final double MAX_G = 20;
+
+    // 인덱스 = 레벨 - 1. 마지막 값은 그보다 높은 레벨에도 적용
+    private final double[] rowsPerTick;
+
+    private GravityCurve(double[] rowsPerTick) {
+        if (rowsPerTick.length == 0) {
+            throw new IllegalArgumentException("gravity curve needs at least one level");
+        }
+        this.rowsPerTick = new double[rowsPerTick.length];
+        for (int i = 0; i < rowsPerTick.length; i++) {
+            if (!(rowsPerTick[i] > 0)) {
+                throw new IllegalArgumentException("gravity must be positive: " + rowsPerTick[i]);
+            }
+            this.rowsPerTick[i] = Math.min(rowsPerTick[i], MAX_G);
+        }
+    }
+
+    public static GravityCurve of(double... rowsPerTick) {
+        return new GravityCurve(rowsPerTick);
+    }
+
+    public static GravityCurve fixed(double rowsPerTick) {
+        return new GravityCurve(new double[] {rowsPerTick});
+    }
+
+    // 1레벨은 0.5초에 한 줄(예전 500ms 루프와 같음), 레벨마다 25% 빨라지다가 20G 에서 멈춤
+    public static GravityCurve standard(int tickRate) {
+        double[] levels = new double[64];
+        int count = 0;
+        double secondsPerRow = 0.5;
+        while (count < levels.length) {
+            levels[count++] = 1 / (secondsPerRow * tickRate);
+            if (levels[count - 1] >= MAX_G) {
+                break;
+            }
+            secondsPerRow *= 0.8;
+        }
+        double[] curve = new double[count];
+        System.arraycopy(levels, 0, curve, 0, count);
+        return new GravityCurve(curve);
+    }
+
+    // -Dtetris.gravity=<틱당 줄 수> 이면 고정 중력, 없으면 standard
+    public static GravityCurve fromProperty(int tickRate) {
+        String value = System.getProperty("tetris.gravity");
+        return value == null ? standard(tickRate) : fixed(Double.parseDouble(value));
+    }
+
+    // 레벨별 값의 복사본 (리플레이 기록용)
+    public double[] levels() {
+        return rowsPerTick.clone();
+    }
+
+    public double rowsPerTick(int level) {
+        return rowsPerTick[Math.min(Math.max(level, 1), rowsPerTick.length) - 1];
+    }
+}
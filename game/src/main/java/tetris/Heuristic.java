@@ -0,0 +1,47 @@
+package tetris;
+
+// 보드 평가 가중치. 값이 클수록 좋은 보드
+public record Heuristic(double aggregateHeight, double linesCleared, double holes, double bumpiness) {
+    public static final Heuristic DEFAULT = new Heuristic(-0.510066, 0.760666, -0.35663, -0.184483);
+
+    // 가중치 순서: aggregateHeight, linesCleared, holes, bumpiness (튜닝용)
+    public static Heuristic of(double[] weights) {
+        return new Heuristic(weights[0], weights[1], weights[2], weights[3]);
+    }
+
+    public double[] weights() {
+        return new double[] {aggregateHeight, linesCleared, holes, bumpiness};
+    }
+
+    // 평가는 보드끼리의 비교에만 쓰이므로 길이 1로 맞춰도 고르는 수는 같다
+    public Heuristic normalized() {
+        double[] w = weights();
+        double length = Math.sqrt(w[0] * w[0] + w[1] * w[1] + w[2] * w[2] + w[3] * w[3]);
+        if (length == 0) {
+            return this;
+        }
+        for (int i = 0; i < w.length; i++) {
+            w[i] /= length;
+        }
+        return of(w);
+    }
+
+    // heights 는 열 수 이상 크기의 작업 공간
+    public double evaluate(Board board, int lines, int[] heights) {
+        return linesCleared * lines + evaluateBoard(board, heights);
+    }
+
+    // 지운 줄 수를 뺀 보드 모양만의 점수. 보드 해시 하나로 캐시할 수 있다
+    public double evaluateBoard(Board board, int[] heights) {
+        board.columnHeights(heights);
+        int aggregate = 0;
+        int bumps = 0;
+        for (int x = 0; x < board.getCols(); x++) {
+            aggregate += heights[x];
+            if (x > 0) {
+                bumps += Math.abs(heights[x] - heights[x - 1]);
+            }
+        }
+        return aggregateHeight * aggregate + holes * board.holes() + bumpiness * bumps;
+    }
+}
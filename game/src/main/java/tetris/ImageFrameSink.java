@@ -0,0 +1,56 @@
+package tetris;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.LongSupplier;
+
+// 화면 없이 능동 렌더링을 돌리기 위한 대역. BufferedImage 에 그리고 프레임 간격을 기록한다
+public class ImageFrameSink implements FrameSink {
+    private final BufferedImage image;
+    private final LatencyStats intervals;
+    private final LongSupplier clock;
+    private long frames;
+    private long lastPresent;
+
+    // budgetNanos 보다 긴 프레임 간격은 over 로 센다 (보통 목표 주기에 여유를 조금 더한 값)
+    public ImageFrameSink(int width, int height, long budgetNanos) {
+        this(width, height, budgetNanos, System::nanoTime);
+    }
+
+    // clock: ActiveRenderLoop 과 같은 시계 (테스트에서는 가짜 시간)
+    ImageFrameSink(int width, int height, long budgetNanos, LongSupplier clock) {
+        this.clock = clock;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.intervals = new LatencyStats(budgetNanos);
+    }
+
+    @Override
+    public synchronized boolean present(Painter painter) {
+        Graphics2D g2 = image.createGraphics();
+        try {
+            painter.paint(g2, null);
+        } finally {
+            g2.dispose();
+        }
+        long now = clock.getAsLong();
+        if (frames > 0) {
+            intervals.record(now - lastPresent);
+        }
+        lastPresent = now;
+        frames++;
+        return true;
+    }
+
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    // 이어진 두 프레임 사이 간격 통계
+    public synchronized LatencyStats getIntervals() {
+        return intervals;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+}
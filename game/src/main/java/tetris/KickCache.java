@@ -0,0 +1,74 @@
+package tetris;
+
+import java.util.Arrays;
+
+// Wall Kick 결과 캐시. 회전 결과는 조각 중심 주변 7x5 칸(벽/바닥 포함)만 보고 정해지므로
+// (종류, 돌린 뒤 방향, 주변 칸 모양) 을 키로 PlayManager.WALL_KICK_OFFSETS 를 차례로 시도하는 반복을 건너뛴다
+// 위치는 키에 넣지 않는다. 벽과 바닥을 찬 칸으로 넣으므로 같은 모양이면 어느 위치든 결과가 같다
+// 항목 하나가 long 하나(키 + 결과)라 스레드끼리 잠금 없이 공유해도 깨진 항목을 읽지 않는다
+public final class KickCache {
+    // 조각 칸은 중심에서 x -1..2, y -1..2, Wall Kick 은 x -2..1, y -1..0 만큼 움직이므로 x -3..3, y -2..2 를 본다
+    private static final int LEFT = 3;
+    private static final int WINDOW_COLS = 7;
+    private static final int WINDOW_ROWS = 5;
+    private static final long WINDOW_ROW = (1L << WINDOW_COLS) - 1;
+    // 양쪽 벽 3칸씩을 붙인 행이 long 에 들어가야 함
+    private static final int MAX_COLS = 64 - LEFT * 2;
+
+    private final long[] entries;
+    private final int shift;
+
+    public KickCache(int log2Entries) {
+        if (log2Entries < 1 || log2Entries > 26) {
+            throw new IllegalArgumentException("log2Entries out of range: " + log2Entries);
+        }
+        this.entries = new long[1 << log2Entries];
+        this.shift = 64 - log2Entries;
+    }
+
+    // PlayManager.resolveKick 과 같은 결과. 중심이 보드 밖이거나 보드가 너무 넓으면 캐시 없이 계산
+    public int findKick(Board board, int type, int newRotation, int x, int y) {
+        int cols = board.getCols();
+        if (x < 0 || x >= cols || cols > MAX_COLS) {
+            return PlayManager.resolveKick(board, type, newRotation, x, y);
+        }
+        long key = window(board, x, y) << 5 | type << 2 | newRotation;
+        int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        long entry = entries[index];
+        // 결과는 kick + 2 (1..8) 로 아래 4비트에 저장, 0 은 빈 칸
+        if (entry != 0 && entry >>> 4 == key) {
+            return (int) (entry & 0xF) - 2;
+        }
+        int kick = PlayManager.resolveKick(board, type, newRotation, x, y);
+        entries[index] = key << 4 | (kick + 2);
+        return kick;
+    }
+
+    // 중심 (x, y) 주변 7x5 칸의 점유 비트. 좌우 벽과 바닥 아래는 찬 칸, 보드 위는 빈 칸
+    private static long window(Board board, int x, int y) {
+        int rows = board.getRows();
+        long walls = (1L << LEFT) - 1 | ((1L << LEFT) - 1) << (board.getCols() + LEFT);
+        long occupancy = 0;
+        for (int k = 0; k < WINDOW_ROWS; k++) {
+            int row = y - 2 + k;
+            long padded;
+            if (row >= rows) {
+                padded = -1L;
+            } else if (row < 0) {
+                padded = walls;
+            } else {
+                padded = board.row(row) << LEFT | walls;
+            }
+            occupancy |= (padded >>> x & WINDOW_ROW) << (k * WINDOW_COLS);
+        }
+        return occupancy;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+}
@@ -0,0 +1,116 @@
+package tetris;
+
+import java.util.Arrays;
+
+// HdrHistogram 처럼 2의 거듭제곱 구간마다 32칸으로 나눈 로그-선형 히스토그램 (나노초, 상대 오차 약 3%)
+// 기록은 한 스레드만 하고, 다른 스레드는 addTo 로 복사해 모아 본다 (long 쓰기는 찢어지지 않으므로 값이 조금 늦을 뿐)
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    // 64 미만은 값 그대로, 그 위는 (지수, 상위 6비트) 로 칸을 정함
+    private static final int LINEAR = SUB * 2;
+    private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return LINEAR + (exponent - SUB_BITS - 1) * SUB + sub;
+    }
+
+    // 칸에 들어가는 가장 큰 값
+    static long highestValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB + SUB_BITS + 1;
+        int sub = (index - LINEAR) % SUB;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((long) (SUB + sub) << (exponent - SUB_BITS)) + width - 1;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // percentile 은 0..100. 기록이 없으면 0
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    // 이 히스토그램의 기록을 target 에 더함
+    public void addTo(LatencyHistogram target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            target.counts[i] += counts[i];
+        }
+        target.count += count;
+        target.sum += sum;
+        target.max = Math.max(target.max, max);
+    }
+
+    // 이 히스토그램에서 earlier (같은 기록의 앞선 복사본) 를 뺀 구간 기록. 최댓값은 남은 가장 높은 칸의 값으로 근사
+    LatencyHistogram minus(LatencyHistogram earlier) {
+        LatencyHistogram interval = new LatencyHistogram();
+        int highest = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            interval.counts[i] = counts[i] - earlier.counts[i];
+            if (interval.counts[i] > 0) {
+                highest = i;
+            }
+        }
+        interval.count = count - earlier.count;
+        interval.sum = sum - earlier.sum;
+        interval.max = highest < 0 ? 0 : Math.min(highestValue(highest), max);
+        return interval;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.3fms p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+                count, getMeanNanos() / 1e6, getPercentile(50) / 1e6, getPercentile(99) / 1e6,
+                getPercentile(99.9) / 1e6, max / 1e6);
+    }
+}
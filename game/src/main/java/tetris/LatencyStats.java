@@ -0,0 +1,71 @@
+package tetris;
+
+// 지연 시간 통계 (나노초): 틱이 예정보다 늦게 시작한 정도, 입력이 적용되기까지 걸린 시간 등
+public class LatencyStats {
+    private final long budgetNanos;
+    private long count;
+    private long sum;
+    private double sumSquares;
+    private long max;
+    private long overBudget;
+    private long dropped;
+
+    // budgetNanos 를 넘는 기록은 따로 센다 (예: 한 프레임)
+    public LatencyStats(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public void record(long nanos) {
+        count++;
+        sum += nanos;
+        sumSquares += (double) nanos * nanos;
+        max = Math.max(max, nanos);
+        if (nanos > budgetNanos) {
+            overBudget++;
+        }
+    }
+
+    // 처리하지 못하고 버린 건수 (밀려서 건너뛴 틱, 큐가 차서 버린 입력)
+    public void drop(long n) {
+        dropped += n;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public double getStdDevNanos() {
+        if (count == 0) {
+            return 0;
+        }
+        double mean = getMeanNanos();
+        return Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    public long getOverBudget() {
+        return overBudget;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void reset() {
+        count = sum = max = overBudget = dropped = 0;
+        sumSquares = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fus sd=%.1fus max=%.1fus over=%d dropped=%d",
+                count, getMeanNanos() / 1000, getStdDevNanos() / 1000, max / 1000.0, overBudget, dropped);
+    }
+}
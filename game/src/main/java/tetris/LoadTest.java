@@ -0,0 +1,180 @@
+package tetris;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// GameServer 부하 시험. 같은 JVM 에 서버를 띄우고, 선택자 스레드 하나로 가짜 클라이언트 수천 개를 돌린다
+// 클라이언트는 일정 간격으로 무작위 입력을 보내고, 게임이 끝나면 바로 다시 참가해 세션 수를 유지한다
+// 실행: java -cp tetris.jar tetris.LoadTest [--sessions 1000] [--mode sprint|versus] [--seconds 20]
+//       [--workers N] [--input-ms 250]
+public final class LoadTest {
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(8192);
+        final ByteBuffer out = ByteBuffer.allocate(64);
+        long nextInput;
+        boolean playing;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final byte joinType;
+    private final long inputNanos;
+    private final SplittableRandom random = new SplittableRandom(1);
+    private long frames;
+    private long bytes;
+    private long games;
+
+    private LoadTest(byte joinType, long inputNanos) {
+        this.joinType = joinType;
+        this.inputNanos = inputNanos;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = 1000;
+        String mode = "sprint";
+        int seconds = 20;
+        int workers = Runtime.getRuntime().availableProcessors();
+        long inputMs = 250;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sessions" -> sessions = Integer.parseInt(args[i + 1]);
+                case "--mode" -> mode = args[i + 1];
+                case "--seconds" -> seconds = Integer.parseInt(args[i + 1]);
+                case "--workers" -> workers = Integer.parseInt(args[i + 1]);
+                case "--input-ms" -> inputMs = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        boolean versus = mode.equals("versus");
+        int clients = versus ? sessions * 2 : sessions;
+
+        try (GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0), workers)) {
+            Thread serverThread = new Thread(server, "server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+
+            LoadTest test = new LoadTest(versus ? Protocol.JOIN_VERSUS : Protocol.JOIN_SPRINT, inputMs * 1_000_000L);
+            test.run(server, clients, seconds, System.out);
+        }
+    }
+
+    private void run(GameServer server, int count, int seconds, PrintStream out) throws IOException {
+        Selector selector = Selector.open();
+        List<Client> clients = new ArrayList<>();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getPort());
+        for (int i = 0; i < count; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            Client client = new Client(channel);
+            channel.register(selector, SelectionKey.OP_READ, client);
+            clients.add(client);
+            join(client);
+        }
+        out.printf("%d clients connected, %d sessions running%n", count, server.getSessions());
+
+        // 처음 몇 초는 세션이 자리 잡는 시간이라 버림
+        long start = System.nanoTime();
+        long warmupEnd = start + 2_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        boolean measuring = false;
+        long gamesAtStart = 0;
+        while (System.nanoTime() < end) {
+            selector.select(5);
+            for (SelectionKey key : selector.selectedKeys()) {
+                read((Client) key.attachment());
+            }
+            selector.selectedKeys().clear();
+
+            long now = System.nanoTime();
+            for (Client client : clients) {
+                if (client.playing && now >= client.nextInput) {
+                    client.nextInput = now + inputNanos / 2 + random.nextLong(inputNanos);
+                    send(client, Protocol.INPUT, random.nextInt(Action.values().length));
+                }
+            }
+            if (!measuring && now >= warmupEnd) {
+                measuring = true;
+                server.resetTickLatency();
+                frames = 0;
+                bytes = 0;
+                gamesAtStart = games;
+            }
+        }
+
+        LatencyHistogram latency = server.getTickLatency();
+        double elapsed = seconds;
+        int cores = Runtime.getRuntime().availableProcessors();
+        out.printf("sessions=%d (started %d) workers=%d cores=%d -> %.0f sessions/core%n",
+                server.getSessions(), server.getSessionsStarted(), server.getWorkers(), cores,
+                (double) server.getSessions() / cores);
+        out.printf("tick latency: %s%n", latency);
+        out.printf("client frames: %.0f/s, %.1f KB/s, games finished %d%n",
+                frames / elapsed, bytes / elapsed / 1024, games - gamesAtStart);
+        for (Client client : clients) {
+            client.channel.close();
+        }
+        selector.close();
+    }
+
+    private void join(Client client) throws IOException {
+        client.out.clear();
+        client.out.putShort((short) 9).put(joinType).putLong(random.nextLong()).flip();
+        write(client);
+    }
+
+    private void send(Client client, byte type, int value) throws IOException {
+        client.out.clear();
+        client.out.putShort((short) 2).put(type).put((byte) value).flip();
+        write(client);
+    }
+
+    // 프레임이 작아 거의 항상 한 번에 나감. 못 나가면 다 나갈 때까지 다시 시도
+    private static void write(Client client) throws IOException {
+        while (client.out.hasRemaining()) {
+            client.channel.write(client.out);
+        }
+    }
+
+    private void read(Client client) {
+        ByteBuffer in = client.in;
+        try {
+            int n = client.channel.read(in);
+            if (n < 0) {
+                client.channel.close();
+                return;
+            }
+            bytes += n;
+            in.flip();
+            for (int length; (length = Protocol.available(in)) > 0; ) {
+                int next = in.position() + 2 + length;
+                in.getShort();
+                byte type = in.get();
+                frames++;
+                if (type == Protocol.START) {
+                    client.playing = true;
+                } else if (type == Protocol.END) {
+                    client.playing = false;
+                    games++;
+                    join(client);
+                }
+                in.position(next);
+            }
+            in.compact();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package tetris;
+
+import java.beans.ConstructorProperties;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// 프로세스 전체의 실행 지표. 카운터는 LongAdder, 지연 시간은 스레드별 조각 히스토그램이라 기록이 잠금 없이 몇 ns 로 끝난다
+// JMX (registerMBean) 와 주기적인 글 출력 (startDump) 으로 본다. -Dtetris.metrics=false 면 기록 호출이 통째로 없어진다
+public final class Metrics implements MetricsMXBean {
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("tetris.metrics", "true"));
+    static final String OBJECT_NAME = "tetris:type=Metrics";
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder pieces = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder inputs = new LongAdder();
+    private final LongAdder[] kicks = new LongAdder[PlayManager.WALL_KICK_OFFSETS.length];
+    private final LongAdder kickFailures = new LongAdder();
+    private final ShardedHistogram tickDuration = new ShardedHistogram();
+    private final ShardedHistogram paintDuration = new ShardedHistogram();
+    private final ShardedHistogram inputToRender = new ShardedHistogram();
+    private final ShardedHistogram inputWait = new ShardedHistogram();
+    // 적용됐지만 아직 화면에 안 그려진 가장 이른 입력: {보일 틱, 큐에 넣은 시각}
+    private final AtomicReference<long[]> pendingInput = new AtomicReference<>();
+
+    private Metrics() {
+        for (int i = 0; i < kicks.length; i++) {
+            kicks[i] = new LongAdder();
+        }
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    // 시뮬레이션 한 틱 (루프나 세션 스케줄러가 잰 시간)
+    static void recordTick(long nanos) {
+        if (ENABLED) {
+            INSTANCE.ticks.increment();
+            INSTANCE.tickDuration.record(nanos);
+        }
+    }
+
+    static void pieceSpawned() {
+        if (ENABLED) {
+            INSTANCE.pieces.increment();
+        }
+    }
+
+    static void linesCleared(int count) {
+        if (ENABLED && count > 0) {
+            INSTANCE.lines.add(count);
+        }
+    }
+
+    // rotateMino 가 고른 Wall Kick 오프셋 번호, 못 돌렸으면 -1
+    static void kick(int index) {
+        if (ENABLED) {
+            (index < 0 ? INSTANCE.kickFailures : INSTANCE.kicks[index]).increment();
+        }
+    }
+
+    // 키 입력 하나를 적용함. 그 결과는 visibleTick 스냅샷부터 보인다
+    static void inputApplied(long visibleTick, long enqueuedNanos, long nowNanos) {
+        if (ENABLED) {
+            INSTANCE.inputs.increment();
+            INSTANCE.inputWait.record(nowNanos - enqueuedNanos);
+            // 이미 기다리는 입력이 있으면 그쪽이 더 이르므로 그대로 둠
+            INSTANCE.pendingInput.compareAndSet(null, new long[] {visibleTick, enqueuedNanos});
+        }
+    }
+
+    // tick 스냅샷을 다 그림
+    static void framePainted(long tick, long startNanos, long endNanos) {
+        if (ENABLED) {
+            INSTANCE.frames.increment();
+            INSTANCE.paintDuration.record(endNanos - startNanos);
+            long[] input = INSTANCE.pendingInput.get();
+            if (input != null && tick >= input[0] && INSTANCE.pendingInput.compareAndSet(input, null)) {
+                INSTANCE.inputToRender.record(endNanos - input[1]);
+            }
+        }
+    }
+
+    // 플랫폼 MBean 서버에 tetris:type=Metrics 로 등록. 여러 번 불러도 됨
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    // intervalNanos 마다 그 구간의 지표를 out 에 쓰는 데몬 스레드
+    public static Thread startDump(long intervalNanos, PrintStream out) {
+        Thread thread = new Thread(() -> INSTANCE.dumpLoop(intervalNanos, out), "metrics");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void dumpLoop(long intervalNanos, PrintStream out) {
+        Totals last = new Totals(this);
+        while (true) {
+            try {
+                Thread.sleep(intervalNanos / 1_000_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            Totals now = new Totals(this);
+            out.print(now.since(last));
+            last = now;
+        }
+    }
+
+    // 한 시점의 누적값. 두 시점의 차이로 구간 비율과 분위수를 낸다
+    private static final class Totals {
+        final long nanos = System.nanoTime();
+        final long ticks;
+        final long pieces;
+        final long lines;
+        final long frames;
+        final long inputs;
+        final long[] kicks;
+        final long kickFailures;
+        final LatencyHistogram tick;
+        final LatencyHistogram paint;
+        final LatencyHistogram inputToRender;
+        final LatencyHistogram inputWait;
+
+        Totals(Metrics m) {
+            ticks = m.getTicks();
+            pieces = m.getPiecesSpawned();
+            lines = m.getLinesCleared();
+            frames = m.getFramesPainted();
+            inputs = m.getInputs();
+            kicks = m.getKickOffsetUsage();
+            kickFailures = m.getKickFailures();
+            tick = m.tickDuration.merged();
+            paint = m.paintDuration.merged();
+            inputToRender = m.inputToRender.merged();
+            inputWait = m.inputWait.merged();
+        }
+
+        String since(Totals last) {
+            double seconds = Math.max(1, nanos - last.nanos) / 1e9;
+            StringBuilder kickText = new StringBuilder();
+            for (int i = 0; i < kicks.length; i++) {
+                kickText.append(i == 0 ? "" : " ").append(kicks[i] - last.kicks[i]);
+            }
+            return String.format("metrics: %.0f ticks/s, %.1f pieces/s, %.2f lines/s, %.0f frames/s, %d inputs%n"
+                            + "  tick   %s%n  paint  %s%n  input->render %s%n  input wait    %s%n"
+                            + "  kicks [%s] failed %d%n",
+                    (ticks - last.ticks) / seconds, (pieces - last.pieces) / seconds, (lines - last.lines) / seconds,
+                    (frames - last.frames) / seconds, inputs - last.inputs,
+                    tick.minus(last.tick), paint.minus(last.paint), inputToRender.minus(last.inputToRender),
+                    inputWait.minus(last.inputWait), kickText, kickFailures - last.kickFailures);
+        }
+    }
+
+    @Override
+    public long getTicks() {
+        return ticks.sum();
+    }
+
+    @Override
+    public long getPiecesSpawned() {
+        return pieces.sum();
+    }
+
+    @Override
+    public long getLinesCleared() {
+        return lines.sum();
+    }
+
+    @Override
+    public long getFramesPainted() {
+        return frames.sum();
+    }
+
+    @Override
+    public long getInputs() {
+        return inputs.sum();
+    }
+
+    @Override
+    public long[] getKickOffsetUsage() {
+        long[] usage = new long[kicks.length];
+        for (int i = 0; i < kicks.length; i++) {
+            usage[i] = kicks[i].sum();
+        }
+        return usage;
+    }
+
+    @Override
+    public long getKickFailures() {
+        return kickFailures.sum();
+    }
+
+    @Override
+    public Summary getTickDuration() {
+        return new Summary(tickDuration.merged());
+    }
+
+    @Override
+    public Summary getPaintDuration() {
+        return new Summary(paintDuration.merged());
+    }
+
+    @Override
+    public Summary getInputToRender() {
+        return new Summary(inputToRender.merged());
+    }
+
+    @Override
+    public Summary getInputWait() {
+        return new Summary(inputWait.merged());
+    }
+
+    // JMX 에 CompositeData 로 보이는 히스토그램 요약 (마이크로초)
+    public static final class Summary {
+        private final long count;
+        private final double meanMicros;
+        private final double p50Micros;
+        private final double p99Micros;
+        private final double p999Micros;
+        private final double maxMicros;
+
+        @ConstructorProperties({"count", "meanMicros", "p50Micros", "p99Micros", "p999Micros", "maxMicros"})
+        public Summary(long count, double meanMicros, double p50Micros, double p99Micros, double p999Micros,
+                       double maxMicros) {
+            this.count = count;
+            this.meanMicros = meanMicros;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.p999Micros = p999Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        Summary(LatencyHistogram h) {
+            this(h.getCount(), h.getMeanNanos() / 1e3, h.getPercentile(50) / 1e3, h.getPercentile(99) / 1e3,
+                    h.getPercentile(99.9) / 1e3, h.getMaxNanos() / 1e3);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMicros() {
+            return meanMicros;
+        }
+
+        public double getP50Micros() {
+            return p50Micros;
+        }
+
+        public double getP99Micros() {
+            return p99Micros;
+        }
+
+        public double getP999Micros() {
+            return p999Micros;
+        }
+
+        public double getMaxMicros() {
+            return maxMicros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                    count, meanMicros, p50Micros, p99Micros, p999Micros, maxMicros);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package tetris;
+
+// JMX 로 보이는 실행 지표 (jconsole 의 tetris:type=Metrics). 모두 시작 이후 누적값
+public interface MetricsMXBean {
+    long getTicks();
+
+    long getPiecesSpawned();
+
+    long getLinesCleared();
+
+    long getFramesPainted();
+
+    long getInputs();
+
+    // PlayManager.WALL_KICK_OFFSETS 순서로 쓰인 횟수 (0 = 제자리 회전)
+    long[] getKickOffsetUsage();
+
+    long getKickFailures();
+
+    Metrics.Summary getTickDuration();
+
+    Metrics.Summary getPaintDuration();
+
+    // 키 입력이 큐에 들어가서 그 입력이 반영된 화면이 다 그려질 때까지
+    Metrics.Summary getInputToRender();
+
+    // 키 입력이 큐에서 시뮬레이션 스레드에 적용되기까지 기다린 시간
+    Metrics.Summary getInputWait();
+}
@@ -0,0 +1,140 @@
+package tetris;
+
+import java.util.Arrays;
+
+// 테트로미노. 모양은 모든 게임이 공유하는 정적 표에서 읽고, 인스턴스는 종류/방향/위치만 가진다
+public final class Mino {
+    public static final int TYPES = 7;
+    public static final int ROTATIONS = 4;
+    public static final String[] NAMES = {"I", "J", "L", "O", "S", "T", "Z"};
+
+    // [type][rotation] = {dx0, dy0, dx1, dy1, ...}, 0번 칸이 회전 중심 (y는 아래로 증가)
+    private static final int[][][] SHAPES = {
+            { // I
+                    {0, 0, 0, -1, 0, 1, 0, 2},
+                    {0, 0, -1, 0, 1, 0, 2, 0},
+                    {0, 0, 0, -1, 0, 1, 0, 2},
+                    {0, 0, -1, 0, 1, 0, 2, 0}
+            },
+            { // J
+                    {0, 0, 0, -1, 0, 1, -1, 1},
+                    {0, 0, 1, 0, -1, 0, -1, -1},
+                    {0, 0, 0, 1, 0, -1, 1, -1},
+                    {0, 0, -1, 0, 1, 0, 1, 1}
+            },
+            { // L
+                    {0, 0, 0, -1, 0, 1, 1, 1},
+                    {0, 0, 1, 0, -1, 0, -1, 1},
+                    {0, 0, 0, 1, 0, -1, -1, -1},
+                    {0, 0, -1, 0, 1, 0, 1, -1}
+            },
+            { // O (회전해도 모양이 같음)
+                    {0, 0, 1, 0, 0, 1, 1, 1},
+                    {0, 0, 1, 0, 0, 1, 1, 1},
+                    {0, 0, 1, 0, 0, 1, 1, 1},
+                    {0, 0, 1, 0, 0, 1, 1, 1}
+            },
+            { // S
+                    {0, 0, 1, 0, 0, 1, -1, 1},
+                    {0, 0, 0, -1, 1, 0, 1, 1},
+                    {0, 0, 1, 0, 0, 1, -1, 1},
+                    {0, 0, 0, -1, 1, 0, 1, 1}
+            },
+            { // T
+                    {0, 0, -1, 0, 1, 0, 0, 1},
+                    {0, 0, 0, -1, 0, 1, -1, 0},
+                    {0, 0, 1, 0, -1, 0, 0, -1},
+                    {0, 0, 0, 1, 0, -1, 1, 0}
+            },
+            { // Z
+                    {0, 0, -1, 0, 0, 1, 1, 1},
+                    {0, 0, 0, -1, -1, 0, -1, 1},
+                    {0, 0, -1, 0, 0, 1, 1, 1},
+                    {0, 0, 0, -1, -1, 0, -1, 1}
+            }
+    };
+
+    // SHAPES 에서 미리 계산한 평탄화 표. 모양 인덱스 = type * 4 + rotation, 칸/행 인덱스 = 모양 * 4 + i
+    static final int[] DX = new int[TYPES * ROTATIONS * 4];
+    static final int[] DY = new int[TYPES * ROTATIONS * 4];
+    static final int[] MIN_DX = new int[TYPES * ROTATIONS];
+    static final int[] MIN_DY = new int[TYPES * ROTATIONS];
+    static final int[] WIDTH = new int[TYPES * ROTATIONS];
+    static final int[] HEIGHT = new int[TYPES * ROTATIONS];
+    // 위에서부터 k번째 행의 비트마스크 (가장 왼쪽 칸 = 0번 비트)
+    static final long[] ROW_MASKS = new long[TYPES * ROTATIONS * 4];
+    // 왼쪽에서 c번째 열에서 가장 아래 칸의 dy (하드 드롭이 열 높이와 비교)
+    static final int[] BOTTOM_DY = new int[TYPES * ROTATIONS * 4];
+
+    static {
+        for (int type = 0; type < TYPES; type++) {
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                int shape = shape(type, rotation);
+                int[] cells = SHAPES[type][rotation];
+                int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+                for (int i = 0; i < 4; i++) {
+                    DX[shape * 4 + i] = cells[i * 2];
+                    DY[shape * 4 + i] = cells[i * 2 + 1];
+                    minX = Math.min(minX, cells[i * 2]);
+                    maxX = Math.max(maxX, cells[i * 2]);
+                    minY = Math.min(minY, cells[i * 2 + 1]);
+                    maxY = Math.max(maxY, cells[i * 2 + 1]);
+                }
+                MIN_DX[shape] = minX;
+                MIN_DY[shape] = minY;
+                WIDTH[shape] = maxX - minX + 1;
+                HEIGHT[shape] = maxY - minY + 1;
+                Arrays.fill(BOTTOM_DY, shape * 4, shape * 4 + 4, Integer.MIN_VALUE);
+                for (int i = 0; i < 4; i++) {
+                    ROW_MASKS[shape * 4 + cells[i * 2 + 1] - minY] |= 1L << (cells[i * 2] - minX);
+                    int column = shape * 4 + cells[i * 2] - minX;
+                    BOTTOM_DY[column] = Math.max(BOTTOM_DY[column], cells[i * 2 + 1]);
+                }
+            }
+        }
+    }
+
+    public int type;
+    public int rotation = 0;
+    public int x, y;
+
+    public Mino(int type) {
+        reset(type);
+    }
+
+    // 다 쓴 조각을 새 조각으로 재사용 (게임당 Mino 두 개만 만들고 계속 돌려 씀)
+    public void reset(int type) {
+        if (type < 0 || type >= TYPES) {
+            throw new IllegalArgumentException("unknown mino type: " + type);
+        }
+        this.type = type;
+        this.rotation = 0;
+        this.x = 0;
+        this.y = 0;
+    }
+
+    public static int shape(int type, int rotation) {
+        return type * ROTATIONS + rotation;
+    }
+
+    public static int dx(int type, int rotation, int i) {
+        return DX[shape(type, rotation) * 4 + i];
+    }
+
+    public static int dy(int type, int rotation, int i) {
+        return DY[shape(type, rotation) * 4 + i];
+    }
+
+    public void setXY(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public int cellX(int i) {
+        return x + DX[shape(type, rotation) * 4 + i];
+    }
+
+    public int cellY(int i) {
+        return y + DY[shape(type, rotation) * 4 + i];
+    }
+}
@@ -0,0 +1,78 @@
+package tetris;
+
+import java.util.Arrays;
+
+// 체스 perft 처럼 정해진 조각 순서로 depth 개를 놓는 모든 고정 위치 순서의 수를 센다
+// 이동/회전 규칙(Board.fits, Wall Kick)은 게임과 같은 코드를 쓰므로 규칙을 바꿨을 때 결과가 달라지면 바로 드러난다
+// 실행: java -cp tetris.jar tetris.Perft [depth] [조각들, 예: TIOLJSZ]
+public final class Perft {
+    private final Placements[] placements;
+    private final int[][] outs;
+    private final UndoLog log = new UndoLog();
+
+    public Perft(int maxDepth, KickCache kicks) {
+        placements = new Placements[maxDepth];
+        outs = new int[maxDepth][];
+        for (int i = 0; i < maxDepth; i++) {
+            placements[i] = new Placements(kicks);
+            outs[i] = new int[0];
+        }
+    }
+
+    // types[i] 번째 조각을 시작 위치 (cols / 2, 0) 에서 내려 놓는다. 시작 위치가 막히면 그 갈래는 0
+    public long count(Board board, int[] types, int depth) {
+        if (depth > placements.length) {
+            throw new IllegalArgumentException("depth " + depth + " > " + placements.length);
+        }
+        return count(board, types, 0, depth);
+    }
+
+    private long count(Board board, int[] types, int ply, int depth) {
+        if (ply == depth) {
+            return 1;
+        }
+        int type = types[ply % types.length];
+        int states = (board.getCols() + 4) * (board.getRows() + 4) * Mino.ROTATIONS;
+        if (outs[ply].length < states) {
+            outs[ply] = new int[states];
+        }
+        Placements p = placements[ply];
+        int[] out = outs[ply];
+        int n = p.enumerate(board, type, 0, board.getCols() / 2, 0, out);
+        if (ply + 1 == depth) {
+            return n;
+        }
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            board.make(type, p.rotation(out[i]), p.x(out[i]), p.y(out[i]), log);
+            total += count(board, types, ply + 1, depth);
+            board.unmake(log);
+        }
+        return total;
+    }
+
+    static int[] parseTypes(String pieces) {
+        int[] types = new int[pieces.length()];
+        for (int i = 0; i < types.length; i++) {
+            String name = pieces.substring(i, i + 1).toUpperCase();
+            types[i] = Arrays.asList(Mino.NAMES).indexOf(name);
+            if (types[i] < 0) {
+                throw new IllegalArgumentException("unknown piece: " + name);
+            }
+        }
+        return types;
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int[] types = parseTypes(args.length > 1 ? args[1] : "TIOLJSZ");
+        Perft perft = new Perft(maxDepth, PlayManager.KICKS);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Board board = new Board(20, 10, BoardMode.fromProperty());
+            long start = System.nanoTime();
+            long count = perft.count(board, types, depth);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("perft(%d) = %d  (%.3f s, %.0f leaves/s)%n", depth, count, seconds, count / seconds);
+        }
+    }
+}
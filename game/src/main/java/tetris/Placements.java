@@ -0,0 +1,138 @@
+package tetris;
+
+import java.util.Arrays;
+
+// 한 조각이 시작 위치에서 왼쪽/오른쪽/아래/회전(Wall Kick 포함)으로 갈 수 있는 모든 고정 위치를 찾는다
+// 쌓인 블록(Board.getSurface) 위의 빈 행에서는 어느 높이든 움직임이 같으므로, 조각을 블록 바로 위까지 곧장 내린 뒤부터 찾는다
+// 그래서 아주 높은 보드에서도 찾는 범위가 보드 높이가 아니라 쌓인 높이만큼이다
+// 방문 표와 큐는 재사용하므로 스레드마다 하나씩 쓴다
+public class Placements {
+    private static final Action[] MOVES = {Action.LEFT, Action.RIGHT, Action.SOFT_DROP, Action.ROTATE};
+    // 조각 중심은 보드 밖으로 최대 2칸까지 나갈 수 있음
+    private static final int MARGIN = 2;
+
+    private int width;
+    private int height;
+    // 방문 표의 맨 위 행과, 시작 위치에서 곧장 내린 칸 수 (path 앞에 붙임)
+    private int base;
+    private int drop;
+    private int[] visited = new int[0];
+    private int[] parent = new int[0];
+    private byte[] move = new byte[0];
+    private int[] queue = new int[0];
+    private int generation = 0;
+    // null 이면 Wall Kick 을 매번 계산
+    private final KickCache kicks;
+
+    public Placements() {
+        this(PlayManager.KICKS);
+    }
+
+    public Placements(KickCache kicks) {
+        this.kicks = kicks;
+    }
+
+    private void ensureCapacity(Board board) {
+        width = board.getCols() + MARGIN * 2;
+        height = board.getRows() - base + MARGIN;
+        int size = width * height * Mino.ROTATIONS;
+        if (visited.length < size) {
+            visited = new int[size];
+            parent = new int[size];
+            move = new byte[size];
+            queue = new int[size];
+            generation = 0;
+        }
+        if (++generation == 0) {
+            Arrays.fill(visited, 0);
+            generation = 1;
+        }
+    }
+
+    // 위치 번호 = ((y - base) * width + (x + 2)) * 4 + rotation. base 는 보통 -2
+    public int encode(int rotation, int x, int y) {
+        return ((y - base) * width + (x + MARGIN)) * Mino.ROTATIONS + rotation;
+    }
+
+    public int rotation(int state) {
+        return state % Mino.ROTATIONS;
+    }
+
+    public int x(int state) {
+        return state / Mino.ROTATIONS % width - MARGIN;
+    }
+
+    public int y(int state) {
+        return state / Mino.ROTATIONS / width + base;
+    }
+
+    // 고정 위치(더 내려갈 수 없는 위치)를 out 에 채우고 개수를 돌려준다. 시작 위치가 막혀 있으면 0
+    public int enumerate(Board board, int type, int rotation, int x, int y, int[] out) {
+        // 조각 칸은 중심에서 아래로 최대 2칸이므로, 중심이 surface - 3 까지는 빈 행만 지나 내려갈 수 있다
+        drop = Math.max(0, board.getSurface() - 3 - y);
+        base = drop > 0 ? y + drop - MARGIN : -MARGIN;
+        ensureCapacity(board);
+        if (!board.fits(type, rotation, x, y)) {
+            return 0;
+        }
+        y += drop;
+
+        int start = encode(rotation, x, y);
+        int head = 0, tail = 0, count = 0;
+        visited[start] = generation;
+        parent[start] = -1;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int state = queue[head++];
+            int r = rotation(state), px = x(state), py = y(state);
+
+            if (!board.fits(type, r, px, py + 1)) {
+                out[count++] = state;
+            } else {
+                tail = visit(state, encode(r, px, py + 1), 2, tail);
+            }
+            if (board.fits(type, r, px - 1, py)) {
+                tail = visit(state, encode(r, px - 1, py), 0, tail);
+            }
+            if (board.fits(type, r, px + 1, py)) {
+                tail = visit(state, encode(r, px + 1, py), 1, tail);
+            }
+            int nr = (r + 1) % Mino.ROTATIONS;
+            int kick = kicks != null ? kicks.findKick(board, type, nr, px, py)
+                    : PlayManager.resolveKick(board, type, nr, px, py);
+            // 위로 차는 Wall Kick 을 반복해 방문 표 위로 올라간 위치는 버림
+            if (kick >= 0 && py + PlayManager.WALL_KICK_OFFSETS[kick][1] >= base) {
+                int[] offset = PlayManager.WALL_KICK_OFFSETS[kick];
+                tail = visit(state, encode(nr, px + offset[0], py + offset[1]), 3, tail);
+            }
+        }
+        return count;
+    }
+
+    // 처음 보는 위치면 큐에 넣고 늘어난 tail 을 돌려준다
+    private int visit(int from, int to, int moveIndex, int tail) {
+        if (visited[to] == generation) {
+            return tail;
+        }
+        visited[to] = generation;
+        parent[to] = from;
+        move[to] = (byte) moveIndex;
+        queue[tail] = to;
+        return tail + 1;
+    }
+
+    // 마지막 enumerate 의 시작 위치에서 target 까지 가는 입력 순서
+    public Action[] path(int target) {
+        int length = drop;
+        for (int state = target; parent[state] >= 0; state = parent[state]) {
+            length++;
+        }
+        Action[] actions = new Action[length];
+        Arrays.fill(actions, 0, drop, Action.SOFT_DROP);
+        for (int state = target; parent[state] >= 0; state = parent[state]) {
+            actions[--length] = MOVES[move[state]];
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,403 @@
+package tetris;
+
+import java.util.Random;
+
+// 화면과 무관한 게임 엔진. Swing/AWT 없이 시드 하나로 게임 한 판을 진행한다
+public class PlayManager {
+    // 기본 보드 크기. 스트레스 시험용으로는 64열 x 수만 행까지 따로 정할 수 있다
+    public static final int ROWS = 20;
+    public static final int COLS = 10;
+
+    private final int rows;
+    private final int cols;
+    private final Board board;
+    private final long seed;
+    private Mino currentMino;
+    private Mino nextMino;
+    private int score = 0;
+    private int lines = 0;
+    private int pieces = 0;
+    private boolean gameOver = false;
+    private GravityCurve gravityCurve = GravityCurve.standard(60);
+    // 바닥에 닿은 뒤 고정까지 기다리는 틱 수
+    private int lockDelay = 30;
+    // 한 줄에 못 미치는 중력 누적값과 바닥에 닿은 채 지난 틱 수
+    private double gravity = 0;
+    private int lockTimer = 0;
+    private long ticks = 0;
+    // 화면에 보이는 상태가 바뀔 때마다 증가. 스냅샷을 새로 만들지 판단하는 데 쓴다
+    private long version = 0;
+    private final Random random;
+    // 붙어 있으면 apply 로 들어온 입력을 모두 기록
+    private ReplayRecorder recorder;
+
+    static final int[][] WALL_KICK_OFFSETS = {
+    	    {0, 0},      // 현재 위치
+    	    {-1, 0},     // 왼쪽으로 한 칸
+    	    {-2,0},
+    	    {1, 0},      // 오른쪽으로 한 칸
+    	    {0, -1},     // 아래로 한 칸
+    	    {-1, -1},    // 왼쪽 아래 대각선
+    	    {1, -1}      // 오른쪽 아래 대각선
+    	};
+    // 모든 게임과 탐색 스레드가 공유하는 Wall Kick 결과 캐시
+    static final KickCache KICKS = Boolean.parseBoolean(System.getProperty("tetris.kickCache", "true"))
+            ? new KickCache(15) : null;
+
+    private int getRandomType() {
+        return random.nextInt(Mino.TYPES);
+    }
+
+    public PlayManager(long seed) {
+        this(seed, BoardMode.fromProperty());
+    }
+
+    public PlayManager(long seed, BoardMode mode) {
+        this(seed, ROWS, COLS, mode);
+    }
+
+    // cols 는 4..64
+    public PlayManager(long seed, int rows, int cols, BoardMode mode) {
+        this.seed = seed;
+        this.rows = rows;
+        this.cols = cols;
+        this.board = new Board(rows, cols, mode);
+        this.random = new Random(seed);
+
+        currentMino = new Mino(getRandomType());
+        currentMino.setXY(cols / 2, 0);
+
+        nextMino = new Mino(getRandomType());
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getPieces() {
+        return pieces;
+    }
+
+    public int getLevel() {
+        return 1 + lines / 10;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GravityCurve getGravityCurve() {
+        return gravityCurve;
+    }
+
+    public void setGravityCurve(GravityCurve gravityCurve) {
+        this.gravityCurve = gravityCurve;
+    }
+
+    public int getLockDelay() {
+        return lockDelay;
+    }
+
+    public void setLockDelay(int ticks) {
+        this.lockDelay = ticks;
+    }
+
+    void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // 현재 상태를 불변 스냅샷으로 복사 (시뮬레이션 스레드에서 호출)
+    // 쌓인 행만 복사하므로 보드 높이와 무관
+    public Snapshot snapshot() {
+        int top = board.getSurface();
+        long[] rowBits = new long[rows - top];
+        for (int y = top; y < rows; y++) {
+            rowBits[y - top] = board.row(y);
+        }
+        int ghostY = gameOver ? currentMino.y : getGhostY();
+        return new Snapshot(ticks, rows, cols, top, rowBits, currentMino, ghostY, nextMino.type, score, lines,
+                pieces, gameOver);
+    }
+
+    // 보드와 현재/다음 조각 종류의 Zobrist 해시
+    public long hash() {
+        return Zobrist.position(board.hash(), currentMino.type, nextMino.type);
+    }
+
+    Board getBoard() {
+        return board;
+    }
+
+    public Mino getCurrentMino() {
+        return currentMino;
+    }
+
+    public Mino getNextMino() {
+        return nextMino;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    // 게임이 끝나기 전에는 null
+    public GameResult getResult() {
+        return gameOver ? new GameResult(seed, score, lines, pieces) : null;
+    }
+
+    public void apply(Action action) {
+        if (recorder != null) {
+            recorder.record(ticks, action);
+        }
+        switch (action) {
+            case LEFT -> moveMino(-1, 0);
+            case RIGHT -> moveMino(1, 0);
+            case SOFT_DROP -> moveMino(0, 1);
+            case ROTATE -> rotateMino();
+            case HARD_DROP -> hardDrop();
+        }
+    }
+
+    // 중력 한 단계: 한 칸 내리고, 못 내리면 고정
+    public void tick() {
+        moveMino(0, 1);
+    }
+
+    // 고정 간격 한 틱: 레벨 중력만큼 내리고, 바닥에 닿아 있으면 lock delay 가 지난 뒤 고정
+    public void step() {
+        if (gameOver) {
+            return;
+        }
+        ticks++;
+        Mino mino = currentMino;
+        gravity += gravityCurve.rowsPerTick(getLevel());
+        while (gravity >= 1 && checkValidMove(mino.type, mino.rotation, mino.x, mino.y + 1)) {
+            mino.y++;
+            gravity -= 1;
+            lockTimer = 0;
+            version++;
+        }
+        if (checkValidMove(mino.type, mino.rotation, mino.x, mino.y + 1)) {
+            return;
+        }
+
+        gravity = 0;
+        if (++lockTimer >= lockDelay) {
+            lockMino();
+            spawnNewMino();
+        }
+    }
+
+    public void moveMino(int dx, int dy) {
+        if (gameOver) {
+            return;
+        }
+        Mino mino = currentMino;
+        if (checkValidMove(mino.type, mino.rotation, mino.x + dx, mino.y + dy)) {
+            mino.x += dx;
+            mino.y += dy;
+            version++;
+        } else if (dy > 0) {
+            lockMino();
+            spawnNewMino();
+        }
+    }
+
+    // 바닥까지 한 번에 내리고 바로 고정. 멈출 자리는 보드의 열 높이로 O(조각 너비)에 찾는다
+    public void hardDrop() {
+        if (gameOver) {
+            return;
+        }
+        Mino mino = currentMino;
+        mino.y = board.dropY(mino.type, mino.rotation, mino.x, mino.y);
+        lockMino();
+        spawnNewMino();
+    }
+
+    // 현재 조각을 떨어뜨렸을 때 멈추는 y (고스트 조각)
+    public int getGhostY() {
+        Mino mino = currentMino;
+        return board.dropY(mino.type, mino.rotation, mino.x, mino.y);
+    }
+
+    // 회전은 표의 방향 인덱스만 바꾼다. 회전 자리와 Wall Kick 자리가 모두 막히면 아무것도 바꾸지 않음
+    public void rotateMino() {
+        if (gameOver) {
+            return;
+        }
+        Mino mino = currentMino;
+        int newRotation = (mino.rotation + 1) % Mino.ROTATIONS;
+        int kick = findKick(board, mino.type, newRotation, mino.x, mino.y);
+        Metrics.kick(kick);
+        Tracer.rotate(mino.type, newRotation, kick);
+        if (kick < 0) {
+            return;
+        }
+        int[] offset = WALL_KICK_OFFSETS[kick];
+        mino.rotation = newRotation;
+        mino.x += offset[0];
+        mino.y += offset[1];
+        version++;
+    }
+
+    // (x, y) 에서 newRotation 으로 돌렸을 때 들어갈 수 있는 첫 Wall Kick 오프셋 번호. 없으면 -1
+    // 결과는 모든 게임이 공유하는 KickCache 에서 찾는다 (-Dtetris.kickCache=false 면 매번 계산)
+    static int findKick(Board board, int type, int newRotation, int x, int y) {
+        if (KICKS == null) {
+            return resolveKick(board, type, newRotation, x, y);
+        }
+        int kick = KICKS.findKick(board, type, newRotation, x, y);
+        if (board.getMode() == BoardMode.CROSS_CHECK && kick != resolveKick(board, type, newRotation, x, y)) {
+            throw new IllegalStateException("kick cache mismatch for " + Mino.NAMES[type]);
+        }
+        return kick;
+    }
+
+    // 오프셋을 차례로 시도하는 원래 계산
+    static int resolveKick(Board board, int type, int newRotation, int x, int y) {
+        for (int i = 0; i < WALL_KICK_OFFSETS.length; i++) {
+            if (board.fits(type, newRotation, x + WALL_KICK_OFFSETS[i][0], y + WALL_KICK_OFFSETS[i][1])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 현재 조각을 (rotation, x, y) 에 바로 고정하고 다음 조각을 꺼낸다. 그 다음 조각은 난수 대신 afterNext 로 정함
+    // 보드 변경과 이전 조각/점수 상태를 log 에 남겨 unmake 가 보드를 복사하지 않고 정확히 되돌린다
+    public void make(int rotation, int x, int y, int afterNext, UndoLog log) {
+        int cleared = board.make(currentMino.type, rotation, x, y, log);
+        log.push(Double.doubleToRawLongBits(gravity));
+        log.push((long) pieces << 32 | (long) lockTimer << 1 | (gameOver ? 1 : 0));
+        log.push((long) score << 32 | lines & 0xFFFFFFFFL);
+        log.push(packMino(currentMino) << 8 | nextMino.type);
+
+        score += 100 * cleared;
+        lines += cleared;
+        spawnNewMino(afterNext);
+    }
+
+    public void unmake(UndoLog log) {
+        long minos = log.pop();
+        long totals = log.pop();
+        long counters = log.pop();
+        gravity = Double.longBitsToDouble(log.pop());
+        board.unmake(log);
+
+        // spawnNewMino 가 바꿔 낀 두 조각 객체를 되돌림
+        Mino placed = nextMino;
+        nextMino = currentMino;
+        currentMino = placed;
+        nextMino.reset((int) minos & 0xFF);
+        unpackMino(currentMino, minos >>> 8);
+        score = (int) (totals >>> 32);
+        lines = (int) totals;
+        pieces = (int) (counters >>> 32);
+        lockTimer = (int) counters >>> 1;
+        gameOver = (counters & 1) != 0;
+        version++;
+    }
+
+    // type 8비트, rotation 8비트, x/y 각 16비트
+    private static long packMino(Mino mino) {
+        return (long) mino.type << 40 | (long) mino.rotation << 32 | (mino.x & 0xFFFFL) << 16 | mino.y & 0xFFFFL;
+    }
+
+    private static void unpackMino(Mino mino, long packed) {
+        mino.type = (int) (packed >>> 40) & 0xFF;
+        mino.rotation = (int) (packed >>> 32) & 0xFF;
+        mino.x = (short) (packed >>> 16);
+        mino.y = (short) packed;
+    }
+
+    // 대전에서 상대가 보낸 방해 줄. 현재 조각은 같이 밀려 올라가고, 보드 위로 밀려난 칸이 있거나 조각이 들어갈 자리가 없으면 게임 오버
+    public void addGarbage(int count, int hole) {
+        if (gameOver || count <= 0) {
+            return;
+        }
+        boolean fits = board.addGarbage(count, hole);
+        Mino mino = currentMino;
+        for (int i = 0; i < count && !checkValidMove(mino.type, mino.rotation, mino.x, mino.y); i++) {
+            mino.y--;
+        }
+        if (!fits || !checkValidMove(mino.type, mino.rotation, mino.x, mino.y)) {
+            gameOver = true;
+        }
+        version++;
+    }
+
+    // 고정된 조각 객체를 다음 조각으로 재사용하므로 조각 생성 시 할당이 없다
+    void spawnNewMino() {
+        Metrics.pieceSpawned();
+        spawnNewMino(getRandomType());
+        Tracer.spawn(currentMino.type);
+    }
+
+    private void spawnNewMino(int afterNext) {
+        pieces++;
+        version++;
+        gravity = 0;
+        lockTimer = 0;
+        Mino locked = currentMino;
+        currentMino = nextMino;
+        nextMino = locked;
+        nextMino.reset(afterNext);
+        currentMino.setXY(cols / 2, 0);
+
+        if (!checkValidMove(currentMino.type, currentMino.rotation, currentMino.x, currentMino.y)) {
+            gameOver = true;
+        }
+    }
+
+    // 고정하고 꽉 찬 줄이 생겼으면 지움. 조각이 걸친 행만 보므로 보드 높이와 무관
+    private void lockMino() {
+        int cleared = board.place(currentMino.type, currentMino.rotation, currentMino.x, currentMino.y);
+        score += 100 * cleared;
+        lines += cleared;
+        Metrics.linesCleared(cleared);
+        Tracer.lock(currentMino.type, cleared);
+    }
+
+    void clearLines() {
+        int cleared = board.clearLines();
+        score += 100 * cleared;
+        lines += cleared;
+    }
+
+    boolean checkValidMove(int type, int rotation, int x, int y) {
+        return board.fits(type, rotation, x, y);
+    }
+
+    // 벤치마크/재현용: 보드를 행 비트마스크로 덮어쓰고 현재 조각을 시작 위치로 되돌린다
+    void loadBoard(long[] rows) {
+        board.load(rows);
+        currentMino.rotation = 0;
+        currentMino.setXY(cols / 2, 0);
+        gameOver = false;
+        version++;
+    }
+
+    public boolean isFilled(int x, int y) {
+        return board.isFilled(x, y);
+    }
+}
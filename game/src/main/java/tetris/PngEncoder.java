@@ -0,0 +1,160 @@
+package tetris;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// ReplayRenderer 용 PNG 인코더. 게임 화면은 색이 몇 개뿐이라 256색 이하면 팔레트 PNG 로, 넘으면 RGB 로 쓴다
+// ImageIO 의 PNG 쓰기는 픽셀마다 색 모델을 거쳐 한 장에 10ms 넘게 걸림. 버퍼는 모두 재사용하므로 스레드마다 하나씩 둔다
+final class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int COLOR_RGB = 2;
+    private static final int COLOR_PALETTE = 3;
+    // 팔레트 찾기용 열린 주소 해시 (키는 RGB + 1, 0 은 빈 칸)
+    private static final int TABLE_SIZE = 1024;
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final int[] keys = new int[TABLE_SIZE];
+    private final byte[] indexes = new byte[TABLE_SIZE];
+    private final int[] palette = new int[256];
+    private int[] pixels = new int[0];
+    private byte[] raw = new byte[0];
+    private byte[] packed = new byte[0];
+
+    PngEncoder(int level) {
+        deflater = new Deflater(level);
+    }
+
+    void encode(BufferedImage image, ByteArrayOutputStream out) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        if (pixels.length < w * h) {
+            pixels = new int[w * h];
+        }
+        // TYPE_INT_RGB 래스터에서 한 번에 복사 (getRGB 는 픽셀마다 색 모델을 거침)
+        image.getRaster().getDataElements(0, 0, w, h, pixels);
+
+        int colors = buildPalette(w * h);
+        boolean indexed = colors <= palette.length;
+        int rowBytes = indexed ? w : w * 3;
+        int rawLength = (rowBytes + 1) * h;
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+        }
+        // 필터는 모두 없음(0). 같은 행이 많아 deflate 가 앞 행을 그대로 가리킨다
+        int p = 0;
+        int last = -1;
+        byte lastIndex = 0;
+        for (int y = 0, i = 0; y < h; y++) {
+            raw[p++] = 0;
+            for (int x = 0; x < w; x++, i++) {
+                int rgb = pixels[i] & 0xffffff;
+                if (indexed) {
+                    // 같은 색이 길게 이어지므로 바로 앞 색이면 해시를 찾지 않음
+                    if (rgb != last) {
+                        last = rgb;
+                        lastIndex = indexes[slot(rgb)];
+                    }
+                    raw[p++] = lastIndex;
+                } else {
+                    raw[p++] = (byte) (rgb >> 16);
+                    raw[p++] = (byte) (rgb >> 8);
+                    raw[p++] = (byte) rgb;
+                }
+            }
+        }
+
+        out.writeBytes(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, w);
+        putInt(header, 4, h);
+        header[8] = 8;
+        header[9] = (byte) (indexed ? COLOR_PALETTE : COLOR_RGB);
+        chunk(out, "IHDR", header, header.length);
+        if (indexed) {
+            byte[] plte = new byte[colors * 3];
+            for (int c = 0; c < colors; c++) {
+                plte[c * 3] = (byte) (palette[c] >> 16);
+                plte[c * 3 + 1] = (byte) (palette[c] >> 8);
+                plte[c * 3 + 2] = (byte) palette[c];
+            }
+            chunk(out, "PLTE", plte, plte.length);
+        }
+        int packedLength = deflate(rawLength);
+        chunk(out, "IDAT", packed, packedLength);
+        chunk(out, "IEND", packed, 0);
+    }
+
+    // 색마다 팔레트 번호를 매김. 256색을 넘으면 그 자리에서 멈추고 257 을 돌려줌
+    private int buildPalette(int count) {
+        Arrays.fill(keys, 0);
+        int colors = 0;
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            int rgb = pixels[i] & 0xffffff;
+            if (rgb == last) {
+                continue;
+            }
+            last = rgb;
+            int s = slot(rgb);
+            if (keys[s] == 0) {
+                if (colors == palette.length) {
+                    return colors + 1;
+                }
+                keys[s] = rgb + 1;
+                indexes[s] = (byte) colors;
+                palette[colors++] = rgb;
+            }
+        }
+        return colors;
+    }
+
+    // rgb 가 있는 칸, 없으면 넣을 빈 칸
+    private int slot(int rgb) {
+        int s = (rgb * 0x9E3779B1) >>> 22;
+        while (keys[s] != 0 && keys[s] != rgb + 1) {
+            s = (s + 1) & (TABLE_SIZE - 1);
+        }
+        return s;
+    }
+
+    private int deflate(int length) {
+        deflater.reset();
+        deflater.setInput(raw, 0, length);
+        deflater.finish();
+        int n = 0;
+        while (!deflater.finished()) {
+            if (n == packed.length) {
+                packed = Arrays.copyOf(packed, Math.max(64 * 1024, packed.length * 2));
+            }
+            n += deflater.deflate(packed, n, packed.length - n);
+        }
+        return n;
+    }
+
+    private void chunk(ByteArrayOutputStream out, String type, byte[] data, int length) {
+        byte[] head = new byte[8];
+        putInt(head, 0, length);
+        for (int i = 0; i < 4; i++) {
+            head[4 + i] = (byte) type.charAt(i);
+        }
+        crc.reset();
+        crc.update(head, 4, 4);
+        crc.update(data, 0, length);
+        out.write(head, 0, 8);
+        out.write(data, 0, length);
+        byte[] tail = new byte[4];
+        putInt(tail, 0, (int) crc.getValue());
+        out.write(tail, 0, 4);
+    }
+
+    private static void putInt(byte[] b, int at, int value) {
+        b[at] = (byte) (value >>> 24);
+        b[at + 1] = (byte) (value >>> 16);
+        b[at + 2] = (byte) (value >>> 8);
+        b[at + 3] = (byte) value;
+    }
+}
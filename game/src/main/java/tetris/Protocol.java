@@ -0,0 +1,50 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+
+// 게임 서버 TCP 프로토콜. 프레임 = 길이(short, 종류 바이트부터) + 종류(byte) + 내용
+final class Protocol {
+    // 클라이언트 -> 서버
+    static final byte JOIN_SPRINT = 1;  // long seed
+    static final byte JOIN_VERSUS = 2;  // long seed (짝이 생기면 먼저 기다린 쪽 시드로 둘 다 시작)
+    static final byte INPUT = 3;        // byte Action.ordinal
+    // 서버 -> 클라이언트
+    static final byte START = 10;       // int session, byte 내 번호, byte 인원
+    static final byte STATE = 11;       // byte 플레이어 번호, Snapshot
+    static final byte END = 12;         // byte 이김(1)/짐(0), int score, int lines, int pieces
+    // 서버 -> 관전자 (SpectatorServer)
+    static final byte KEYFRAME = 13;    // Snapshot 전체
+    static final byte DELTA = 14;       // 바로 앞 프레임 대비 SnapshotDelta
+
+    static final int HEADER = 3;
+    static final int MAX_FRAME = 1024;
+    // 스프린트는 40줄을 지우면 끝
+    static final int SPRINT_LINES = 40;
+
+    private Protocol() {
+    }
+
+    // 길이 자리를 비워 두고 종류를 쓴다. 내용을 쓴 뒤 end 로 길이를 채움
+    static void begin(ByteBuffer out, byte type) {
+        out.clear();
+        out.putShort((short) 0);
+        out.put(type);
+    }
+
+    static ByteBuffer end(ByteBuffer out) {
+        out.putShort(0, (short) (out.position() - 2));
+        return out.flip();
+    }
+
+    // in(읽기 모드)에 완전한 프레임이 있으면 그 길이, 없으면 -1
+    static int available(ByteBuffer in) {
+        if (in.remaining() < 2) {
+            return -1;
+        }
+        int length = in.getShort(in.position()) & 0xFFFF;
+        if (length == 0 || length > MAX_FRAME) {
+            throw new IllegalStateException("bad frame length " + length);
+        }
+        return in.remaining() >= 2 + length ? length : -1;
+    }
+}
@@ -0,0 +1,212 @@
+package tetris;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// 스냅샷을 그린다. 격자 배경, 블록 스프라이트, 글꼴은 처음 한 번만 만들고 재사용한다
+// 보드가 화면보다 높으면 현재 조각을 따라가는 창(viewport)에 들어온 행만 그린다
+public class Renderer {
+    // Mino.type 순서: I, J, L, O, S, T, Z
+    static final Color[] MINO_COLORS = {
+            Color.CYAN, Color.BLUE, Color.ORANGE, Color.YELLOW, Color.GREEN, Color.MAGENTA, Color.RED
+    };
+    private static final Font FONT = new Font("맑은 고딕", Font.BOLD, 18);
+    // 옆 패널은 보드 오른쪽 끝에서 이만큼 떨어져 시작 (10열 보드면 380)
+    private static final int PANEL_GAP = 80;
+    private static final int NEXT_GAP = 20;
+    private static final int NEXT_Y = 70;
+    private static final int SCORE_Y = 150;
+
+    private final int cellSize;
+    private final int width;
+    private final int height;
+    // 화면에 내보내는 프레임만 Metrics 에 셈 (ReplayRenderer 처럼 파일로 그리는 쪽은 false)
+    private final boolean metrics;
+
+    private GraphicsConfiguration config;
+    private Image background;
+    private Image lockedSprite;
+    private final Image[] minoSprites = new Image[Mino.TYPES];
+    private final Image[] ghostSprites = new Image[Mino.TYPES];
+    private int backgroundRows;
+    private int backgroundCols;
+    private int panelX;
+    private int scoreShown = -1;
+    private String scoreText;
+
+    public Renderer(int cellSize, int width, int height) {
+        this(cellSize, width, height, true);
+    }
+
+    public Renderer(int cellSize, int width, int height, boolean metrics) {
+        this.cellSize = cellSize;
+        this.width = width;
+        this.height = height;
+        this.metrics = metrics;
+    }
+
+    // config 가 null 이면 BufferedImage 로 만든다 (화면 없이 그릴 때)
+    public void paint(Graphics2D g2, Snapshot state, GraphicsConfiguration config) {
+        long start = System.nanoTime();
+        prepare(state, config);
+
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, width, height);
+        }
+        g2.drawImage(background, 0, 0, null);
+
+        // 창 안에서 클립에 걸친 행만 그림
+        int top = viewTop(state);
+        int firstRow = Math.max(0, clip.y / cellSize - 1);
+        int lastRow = Math.min(backgroundRows - 1, (clip.y + clip.height) / cellSize);
+        for (int y = firstRow; y <= lastRow; y++) {
+            long bits = state.row(top + y);
+            while (bits != 0) {
+                int x = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                g2.drawImage(lockedSprite, x * cellSize, y * cellSize, null);
+            }
+        }
+
+        // 고스트 조각(떨어질 자리)을 먼저 그리고 그 위에 현재 조각
+        if (state.getGhostY() != state.getCurrentY()) {
+            drawMino(g2, ghostSprites, state.getCurrentType(), state.getCurrentRotation(),
+                    state.getCurrentX() * cellSize, (state.getGhostY() - top) * cellSize);
+        }
+        drawMino(g2, minoSprites, state.getCurrentType(), state.getCurrentRotation(),
+                state.getCurrentX() * cellSize, (state.getCurrentY() - top) * cellSize);
+
+        // 다음 블록은 회전 중심을 패널 안 (panelX + 20, 70)에 두고 그림 (10열 보드면 (400, 70))
+        drawMino(g2, minoSprites, state.getNextType(), 0, panelX + NEXT_GAP, NEXT_Y);
+
+        if (state.getScore() != scoreShown) {
+            scoreShown = state.getScore();
+            scoreText = "점수: " + scoreShown;
+        }
+        g2.setColor(Color.WHITE);
+        g2.setFont(FONT);
+        g2.drawString(scoreText, panelX, SCORE_Y);
+        if (metrics) {
+            Metrics.framePainted(state.getTick(), start, System.nanoTime());
+        }
+    }
+
+    // 화면에 들어가는 행 수
+    int viewRows(Snapshot state) {
+        return Math.min(state.getRows(), height / cellSize);
+    }
+
+    // 창의 맨 위 행. 보드가 창보다 높으면 현재 조각이 창 가운데쯤 오도록 따라감
+    int viewTop(Snapshot state) {
+        int view = viewRows(state);
+        return Math.max(0, Math.min(state.getRows() - view, state.getCurrentY() - view / 2));
+    }
+
+    private void drawMino(Graphics2D g2, Image[] sprites, int type, int rotation, int pivotX, int pivotY) {
+        for (int i = 0; i < 4; i++) {
+            int x = pivotX + Mino.dx(type, rotation, i) * cellSize;
+            int y = pivotY + Mino.dy(type, rotation, i) * cellSize;
+            g2.drawImage(sprites[type], x, y, null);
+        }
+    }
+
+    // before -> after 사이에 바뀐 행 범위와 옆 패널만 다시 그리도록 요청
+    public void repaintChanged(Component component, Snapshot before, Snapshot after) {
+        if (before == after) {
+            return;
+        }
+        if (before == null || before.getRows() != after.getRows() || before.getCols() != after.getCols()) {
+            component.repaint();
+            return;
+        }
+
+        int view = viewRows(after);
+        int viewTop = viewTop(after);
+        if (viewTop(before) != viewTop) {
+            // 창이 움직이면 보드 전체를 다시 그림
+            component.repaint(0, 0, after.getCols() * cellSize + 1, view * cellSize + 1);
+        } else {
+            // 창 안의 행만 비교 (창 밖 행은 어차피 안 보임)
+            int top = Integer.MAX_VALUE;
+            int bottom = Integer.MIN_VALUE;
+            for (int y = 0; y < view; y++) {
+                if (before.row(viewTop + y) != after.row(viewTop + y)) {
+                    top = Math.min(top, y);
+                    bottom = Math.max(bottom, y);
+                }
+            }
+            // 현재 조각과 고스트 조각의 예전/새 자리
+            for (int i = 0; i < 4; i++) {
+                int oldDy = Mino.dy(before.getCurrentType(), before.getCurrentRotation(), i);
+                int newDy = Mino.dy(after.getCurrentType(), after.getCurrentRotation(), i);
+                int oldY = before.getCurrentY() + oldDy;
+                int newY = after.getCurrentY() + newDy;
+                top = Math.min(top, Math.min(oldY, newY) - viewTop);
+                bottom = Math.max(bottom, Math.max(before.getGhostY() + oldDy, after.getGhostY() + newDy) - viewTop);
+            }
+            top = Math.max(top, 0);
+            bottom = Math.min(bottom, view - 1);
+            if (top <= bottom) {
+                component.repaint(0, top * cellSize, after.getCols() * cellSize + 1, (bottom - top + 1) * cellSize + 1);
+            }
+        }
+
+        if (before.getNextType() != after.getNextType() || before.getScore() != after.getScore()) {
+            int panelX = after.getCols() * cellSize + 1;
+            component.repaint(panelX, 0, width - panelX, height);
+        }
+    }
+
+    private void prepare(Snapshot state, GraphicsConfiguration config) {
+        if (background != null && config == this.config
+                && backgroundRows == viewRows(state) && backgroundCols == state.getCols()) {
+            return;
+        }
+        this.config = config;
+        backgroundRows = viewRows(state);
+        backgroundCols = state.getCols();
+        panelX = backgroundCols * cellSize + PANEL_GAP;
+
+        background = createImage(width, height);
+        Graphics2D g2 = (Graphics2D) background.getGraphics();
+        g2.setColor(Color.BLACK);
+        g2.fillRect(0, 0, width, height);
+        g2.setColor(Color.GRAY);
+        for (int y = 0; y < backgroundRows; y++) {
+            for (int x = 0; x < backgroundCols; x++) {
+                g2.drawRect(x * cellSize, y * cellSize, cellSize, cellSize);
+            }
+        }
+        g2.setColor(Color.WHITE);
+        g2.setFont(FONT);
+        g2.drawString("다음 블록", panelX, 50);
+        g2.dispose();
+
+        lockedSprite = createSprite(Color.LIGHT_GRAY, Color.GRAY);
+        for (int type = 0; type < Mino.TYPES; type++) {
+            minoSprites[type] = createSprite(MINO_COLORS[type], Color.BLACK);
+            ghostSprites[type] = createSprite(Color.DARK_GRAY, MINO_COLORS[type]);
+        }
+    }
+
+    // 칸 하나 + 테두리 1픽셀
+    private Image createSprite(Color fill, Color border) {
+        Image sprite = createImage(cellSize + 1, cellSize + 1);
+        Graphics2D g2 = (Graphics2D) sprite.getGraphics();
+        g2.setColor(fill);
+        g2.fillRect(0, 0, cellSize, cellSize);
+        g2.setColor(border);
+        g2.drawRect(0, 0, cellSize, cellSize);
+        g2.dispose();
+        return sprite;
+    }
+
+    // 화면과 같은 픽셀 형식의 이미지라 Java2D 가 가속 캐시에 올려 둘 수 있다
+    private Image createImage(int w, int h) {
+        if (config == null) {
+            return new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        }
+        return config.createCompatibleImage(w, h, Transparency.OPAQUE);
+    }
+}
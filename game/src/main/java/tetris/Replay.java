@@ -0,0 +1,97 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+// 기록된 게임 하나. 머리만 읽어 두고, play() 가 화면 없이 틱을 최대 속도로 돌려 같은 게임을 다시 만든다
+public final class Replay {
+    private final long seed;
+    private final int rows;
+    private final int cols;
+    private final int lockDelay;
+    private final GravityCurve gravityCurve;
+    private final ByteBuffer events;
+
+    // block 은 ReplayRecorder.finish 가 돌려준 내용 (매핑된 파일의 조각이어도 됨)
+    public Replay(ByteBuffer block) {
+        ByteBuffer in = block.duplicate();
+        seed = in.getLong();
+        rows = (int) Varint.read(in);
+        cols = (int) Varint.read(in);
+        lockDelay = (int) Varint.read(in);
+        double[] levels = new double[(int) Varint.read(in)];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = in.getDouble();
+        }
+        gravityCurve = GravityCurve.of(levels);
+        events = in.slice();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getEventBytes() {
+        return events.remaining();
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // 기록 끝까지 돌린 PlayManager
+    public PlayManager play() {
+        return play(null);
+    }
+
+    // onTick 은 시작 상태에서 한 번, 그 뒤 틱마다 한 번씩 불린다 (null 이면 안 부름)
+    public PlayManager play(Consumer<PlayManager> onTick) {
+        PlayManager playManager = new PlayManager(seed, rows, cols, BoardMode.BITBOARD);
+        playManager.setGravityCurve(gravityCurve);
+        playManager.setLockDelay(lockDelay);
+
+        ByteBuffer in = events.duplicate();
+        long tick = 0;
+        if (onTick != null) {
+            onTick.accept(playManager);
+        }
+        while (true) {
+            long value = Varint.read(in);
+            tick += value >>> 3;
+            int code = (int) value & 7;
+            while (playManager.getTicks() < tick && !playManager.isGameOver()) {
+                playManager.step();
+                if (onTick != null) {
+                    onTick.accept(playManager);
+                }
+            }
+            if (code == ReplayRecorder.END) {
+                return playManager;
+            }
+            playManager.apply(ReplayRecorder.action(code));
+        }
+    }
+
+    // 기록 끝에 남긴 결과 (점수, 줄, 조각 수)
+    public GameResult getRecordedResult() {
+        ByteBuffer in = events.duplicate();
+        while (true) {
+            long value = Varint.read(in);
+            if (((int) value & 7) == ReplayRecorder.END) {
+                return new GameResult(seed, (int) Varint.read(in), (int) Varint.read(in), (int) Varint.read(in));
+            }
+        }
+    }
+
+    // 다시 돌린 결과가 기록된 결과와 같은지
+    public boolean verify() {
+        PlayManager playManager = play();
+        GameResult recorded = getRecordedResult();
+        return playManager.getScore() == recorded.score() && playManager.getLines() == recorded.lines()
+                && playManager.getPieces() == recorded.pieces();
+    }
+}
@@ -0,0 +1,99 @@
+package tetris;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 리플레이 파일: 머리 4바이트("TRP" + 버전) 뒤에 게임마다 (길이 int, 기록) 을 이어 붙이기만 한다
+// 읽을 때는 파일 전체를 메모리 매핑해서 복사 없이 게임별 조각으로 나눈다. 마지막 게임이 잘려 있으면 버림
+// 실행: java -cp tetris.jar tetris.ReplayLog <파일>  (모든 게임을 다시 돌려 결과 확인)
+public final class ReplayLog implements Closeable {
+    private static final int MAGIC = 'T' << 24 | 'R' << 16 | 'P' << 8 | 1;
+
+    private final FileChannel channel;
+
+    private ReplayLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static ReplayLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            writeFully(channel, ByteBuffer.allocate(4).putInt(MAGIC).flip());
+        }
+        return new ReplayLog(channel);
+    }
+
+    // 여러 게임 스레드가 같은 파일에 써도 기록이 섞이지 않음
+    public synchronized void append(ByteBuffer game) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(4 + game.remaining());
+        block.putInt(game.remaining()).put(game.duplicate()).flip();
+        writeFully(channel, block);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static List<Replay> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("replay file larger than 2 GB: " + path);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < 4 || map.getInt() != MAGIC) {
+                throw new IOException("not a replay file: " + path);
+            }
+            List<Replay> replays = new ArrayList<>();
+            while (map.remaining() >= 4) {
+                int length = map.getInt();
+                if (length < 0 || length > map.remaining()) {
+                    break;
+                }
+                replays.add(new Replay(map.slice(map.position(), length)));
+                map.position(map.position() + length);
+            }
+            return replays;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: ReplayLog <file>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        List<Replay> replays = read(Path.of(args[0]));
+        long bytes = 0;
+        for (Replay replay : replays) {
+            bytes += replay.getEventBytes();
+        }
+        AtomicInteger failed = new AtomicInteger();
+        replays.parallelStream().forEach(replay -> {
+            if (!replay.verify()) {
+                failed.incrementAndGet();
+                System.err.println("mismatch: seed " + replay.getSeed());
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d event bytes (%.0f per game), %d mismatches, %.2f s (%.0f games/s)%n",
+                replays.size(), bytes, replays.isEmpty() ? 0.0 : (double) bytes / replays.size(),
+                failed.get(), seconds, replays.size() / seconds);
+    }
+}
@@ -0,0 +1,80 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+
+// 한 게임의 입력 기록. 시드와 규칙 설정을 머리에 쓰고, 입력마다 (이전 입력 이후 틱 수, 입력) 을 varint 하나로 쌓는다
+// 값 = 틱 차이 << 3 | 코드. 코드 0..3 = LEFT..ROTATE, 4 = 끝 (뒤에 점수/줄/조각 수), 5 = HARD_DROP
+// (HARD_DROP 이 나중에 생겨서 끝 표시 뒤 번호를 씀. 예전 파일도 그대로 읽힌다)
+// PlayManager.apply 가 부르므로 시뮬레이션 스레드에서만 쓴다
+public final class ReplayRecorder {
+    static final int END = 4;
+    private static final Action[] ACTIONS = Action.values();
+
+    private final PlayManager playManager;
+    private ByteBuffer buffer = ByteBuffer.allocate(1024);
+    private long lastTick = 0;
+    private boolean finished = false;
+
+    private ReplayRecorder(PlayManager playManager) {
+        this.playManager = playManager;
+        buffer.putLong(playManager.getSeed());
+        Varint.write(buffer, playManager.getRows());
+        Varint.write(buffer, playManager.getCols());
+        Varint.write(buffer, playManager.getLockDelay());
+        double[] levels = playManager.getGravityCurve().levels();
+        Varint.write(buffer, levels.length);
+        ensure(levels.length * Double.BYTES);
+        for (double level : levels) {
+            buffer.putDouble(level);
+        }
+    }
+
+    // 중력/lock delay 를 정한 뒤, 첫 틱 전에 붙인다
+    public static ReplayRecorder attach(PlayManager playManager) {
+        ReplayRecorder recorder = new ReplayRecorder(playManager);
+        playManager.setRecorder(recorder);
+        return recorder;
+    }
+
+    void record(long tick, Action action) {
+        if (finished) {
+            return;
+        }
+        put((tick - lastTick) << 3 | code(action));
+        lastTick = tick;
+    }
+
+    static int code(Action action) {
+        return action.ordinal() < END ? action.ordinal() : action.ordinal() + 1;
+    }
+
+    static Action action(int code) {
+        return ACTIONS[code < END ? code : code - 1];
+    }
+
+    // 끝 표시와 결과를 붙이고 기록을 돌려준다 (게임이 끝나기 전에 불러도 됨)
+    public ByteBuffer finish() {
+        if (!finished) {
+            finished = true;
+            put((playManager.getTicks() - lastTick) << 3 | END);
+            put(playManager.getScore());
+            put(playManager.getLines());
+            put(playManager.getPieces());
+            playManager.setRecorder(null);
+        }
+        return buffer.duplicate().flip();
+    }
+
+    private void put(long value) {
+        ensure(10);
+        Varint.write(buffer, value);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            grown.put(buffer.flip());
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package tetris;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// 기록된 게임을 화면 없이 PNG 연속 이미지(frame_000000.png ...)로 그린다. 하이라이트 영상용
+// 시뮬레이션은 빠르므로 한 스레드가 리플레이를 돌리며 스냅샷을 chunk 장씩 묶어 풀에 넘기고,
+// 작업 스레드마다 Renderer, 이미지, PngEncoder 를 하나씩 두고 재사용해 각 묶음을 그리고 인코딩한다
+// 실행: java -cp tetris.jar tetris.ReplayRenderer <리플레이 파일> <출력 폴더> [--game 0] [--every 1] [--threads N]
+//       [--chunk 32] [--level 1]
+public final class ReplayRenderer {
+    // 작업 스레드 하나가 계속 쓰는 그리기 도구
+    private final class Worker {
+        // 화면에 보인 프레임이 아니므로 Metrics 에 세지 않음
+        final Renderer renderer = new Renderer(cellSize, width, height, false);
+        final ImageFrameSink sink = new ImageFrameSink(width, height, Long.MAX_VALUE);
+        final PngEncoder png = new PngEncoder(level);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+
+        void render(Snapshot state, Path file) throws IOException {
+            sink.present((g2, config) -> renderer.paint(g2, state, null));
+            bytes.reset();
+            png.encode(sink.getImage(), bytes);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                bytes.writeTo(out);
+            }
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int cellSize;
+    private final int width;
+    private final int height;
+    private final int level;
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    // level 은 PNG 의 deflate 압축 단계 (1 = 가장 빠르게, 9 = 가장 작게)
+    public ReplayRenderer(ForkJoinPool pool, int cols, int level) {
+        this.pool = pool;
+        this.cellSize = Tetris.Game.cellSize(cols);
+        this.width = cols * cellSize + Tetris.Game.PANEL_WIDTH;
+        this.height = Tetris.Game.HEIGHT;
+        this.level = level;
+    }
+
+    // every 틱마다 한 장씩 dir 에 쓰고 쓴 장 수를 돌려줌. 그리는 쪽이 밀리면 시뮬레이션이 기다려 메모리에 쌓이는 스냅샷은
+    // 풀 스레드 수의 몇 배 묶음까지로 제한된다
+    public long render(Replay replay, int every, int chunk, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        ArrayDeque<ForkJoinTask<?>> pending = new ArrayDeque<>();
+        int maxPending = pool.getParallelism() * 4;
+        List<Snapshot> frames = new ArrayList<>(chunk);
+        long[] counts = new long[2];  // {틱 수, 그린 장 수}
+        replay.play(playManager -> {
+            if (counts[0]++ % every != 0) {
+                return;
+            }
+            frames.add(playManager.snapshot());
+            if (frames.size() == chunk) {
+                submit(new ArrayList<>(frames), counts[1], dir, pending, maxPending);
+                counts[1] += frames.size();
+                frames.clear();
+            }
+        });
+        if (!frames.isEmpty()) {
+            submit(frames, counts[1], dir, pending, maxPending);
+            counts[1] += frames.size();
+        }
+        while (!pending.isEmpty()) {
+            pending.poll().join();
+        }
+        return counts[1];
+    }
+
+    private void submit(List<Snapshot> frames, long first, Path dir, ArrayDeque<ForkJoinTask<?>> pending,
+                        int maxPending) {
+        while (pending.size() >= maxPending) {
+            pending.poll().join();
+        }
+        pending.add(pool.submit(() -> {
+            Worker worker = workers.get();
+            for (int i = 0; i < frames.size(); i++) {
+                try {
+                    worker.render(frames.get(i), dir.resolve(String.format("frame_%06d.png", first + i)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: ReplayRenderer <replay file> <output dir> [--game 0] [--every 1] [--threads N]"
+                    + " [--chunk 32] [--level 1]");
+            System.exit(2);
+        }
+        Map<String, String> options = parse(args);
+        int game = Integer.parseInt(options.getOrDefault("game", "0"));
+        int every = Integer.parseInt(options.getOrDefault("every", "1"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int chunk = Integer.parseInt(options.getOrDefault("chunk", "32"));
+        int level = Integer.parseInt(options.getOrDefault("level", "1"));
+        System.setProperty("java.awt.headless", "true");
+
+        List<Replay> replays = ReplayLog.read(Path.of(args[0]));
+        if (game < 0 || game >= replays.size()) {
+            throw new IllegalArgumentException("replay file has " + replays.size() + " games, no game " + game);
+        }
+        Replay replay = replays.get(game);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            ReplayRenderer renderer = new ReplayRenderer(pool, replay.getCols(), level);
+            long start = System.nanoTime();
+            long frames = renderer.render(replay, every, chunk, Path.of(args[1]));
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d frames (%dx%d) with %d threads in %.2f s: %.0f frames/s%n",
+                    frames, renderer.width, renderer.height, threads, seconds, frames / seconds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
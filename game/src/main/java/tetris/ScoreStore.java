@@ -0,0 +1,540 @@
+package tetris;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// 끝난 게임 결과를 쌓는 점수 기록. 기록 파일은 머리 16바이트 뒤에 64바이트 고정 길이 레코드를 덧붙이기만 한다
+// 레코드: 시드, 끝난 시각(epoch ms), 걸린 시간(ms), 점수, 줄, 조각 수, 플레이어 이름(UTF-8 24바이트), CRC32C
+// 색인 파일(<기록>.idx.<세대>)은 앞쪽 레코드 N 개의 (점수 내림차순 키 배열, 이름순 플레이어별 최고 기록) 을 메모리 매핑해 쓰고,
+// 그 뒤에 붙은 레코드(꼬리)만 힙에 둔다. 꼬리가 REBUILD_TAIL 개가 되면 색인과 합쳐 다음 세대 색인 파일을 만든다
+// 매핑된 파일은 풀 수 없어(Windows 에서는 덮어쓰기도 지우기도 안 됨) 색인 파일을 바꿔 끼우지 않고 세대마다 새 이름으로 쓰고,
+// 예전 세대는 지울 수 있을 때 지운다
+// 덧붙이기는 매번 fsync 하고, 열 때는 마지막 레코드만 확인해 쓰다 만 레코드를 잘라 낸다 (파일 전체를 읽지 않음)
+// 한 프로세스만 쓴다고 가정. 실행: java -cp tetris.jar tetris.ScoreStore <파일> [--top 10] [--player 이름]
+public final class ScoreStore implements Closeable {
+    static final int RECORD_BYTES = 64;
+    static final int NAME_BYTES = 24;
+    static final int REBUILD_TAIL = 4096;
+    private static final int LOG_MAGIC = 'T' << 24 | 'S' << 16 | 'C' << 8 | 1;
+    private static final int INDEX_MAGIC = 'T' << 24 | 'S' << 16 | 'I' << 8 | 1;
+    private static final int LOG_HEADER = 16;
+    private static final int INDEX_HEADER = 24;
+    private static final int PLAYER_BYTES = NAME_BYTES + 8;
+    private static final int CRC_AT = RECORD_BYTES - 4;
+
+    public record Entry(long record, String player, long seed, int score, int lines, int pieces,
+                        long durationMillis, long endedAtMillis) {
+    }
+
+    private final Path logPath;
+    // 색인 파일 이름 앞부분 (<기록 파일 이름>.idx.)
+    private final String indexPrefix;
+    private final FileChannel log;
+    private final boolean sync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private long count;
+
+    // 색인: covered 개 레코드의 키(점수 << 32 | ~번호, 내림차순)와 플레이어별 최고 기록 (이름 바이트 순)
+    private MappedByteBuffer index;
+    private long covered;
+    private int players;
+    // 매핑한 색인의 세대, 지금까지 본 가장 큰 세대 (다음 색인은 그 다음 번호)
+    private long generation = -1;
+    private long lastGeneration = -1;
+    // 꼬리: covered 뒤 레코드의 키, 플레이어별 최고 키
+    private long[] tailKeys = new long[64];
+    private int tailCount;
+    private final Map<String, Long> tailBest = new HashMap<>();
+
+    private ScoreStore(Path logPath, FileChannel log, boolean sync) {
+        this.logPath = logPath;
+        this.indexPrefix = logPath.getFileName() + ".idx.";
+        this.log = log;
+        this.sync = sync;
+    }
+
+    public static ScoreStore open(Path path) throws IOException {
+        return open(path, true);
+    }
+
+    // sync 가 false 면 덧붙일 때 fsync 하지 않음 (대량으로 채우는 시험용)
+    public static ScoreStore open(Path path, boolean sync) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        ScoreStore store = new ScoreStore(path, channel, sync);
+        try {
+            store.recover();
+            store.loadIndex();
+            store.loadTail();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    // 머리를 확인하고, 크래시로 잘린 마지막 레코드(길이가 모자라거나 CRC 가 틀림)를 잘라 냄
+    // 빈 파일만 새 기록으로 만든다. 다른 파일을 잘못 가리켰을 때 덮어쓰지 않도록 머리보다 짧으면 거부
+    private void recover() throws IOException {
+        long size = log.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER).putInt(LOG_MAGIC).putInt(RECORD_BYTES);
+            writeFully(header.clear(), 0);
+            log.force(true);
+            size = LOG_HEADER;
+        } else if (size < LOG_HEADER) {
+            throw new IOException("not a score file: " + logPath);
+        }
+        ByteBuffer header = ByteBuffer.allocate(8);
+        readFully(header, 0);
+        if (header.getInt(0) != LOG_MAGIC || header.getInt(4) != RECORD_BYTES) {
+            throw new IOException("not a score file: " + logPath);
+        }
+        count = (size - LOG_HEADER) / RECORD_BYTES;
+        if (count > 0 && !readRecord(count - 1)) {
+            count--;
+        }
+        if (LOG_HEADER + count * RECORD_BYTES != size) {
+            log.truncate(LOG_HEADER + count * RECORD_BYTES);
+            log.force(true);
+        }
+    }
+
+    // 기록과 맞는 가장 새 세대의 색인을 매핑하고, 나머지 색인 파일은 지운다
+    private void loadIndex() throws IOException {
+        index = null;
+        covered = 0;
+        players = 0;
+        generation = -1;
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), this::isIndexFile)) {
+            for (Path file : files) {
+                long g = indexGeneration(file);
+                if (g >= 0) {
+                    generations.add(g);
+                    lastGeneration = Math.max(lastGeneration, g);
+                }
+            }
+        }
+        generations.sort(Collections.reverseOrder());
+        for (long g : generations) {
+            if (mapIndex(g)) {
+                break;
+            }
+        }
+        removeStaleIndexes();
+    }
+
+    // 색인이 기록과 맞으면 (덮는 레코드 수가 기록 안이고 마지막 덮은 레코드의 CRC 가 같으면) 매핑
+    private boolean mapIndex(long g) throws IOException {
+        Path path = indexPath(g);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < INDEX_HEADER || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long n = map.getLong(8);
+            int p = map.getInt(4);
+            if (map.getInt(0) != INDEX_MAGIC || n > count || n < 0 || p < 0
+                    || size != INDEX_HEADER + n * 8 + (long) p * PLAYER_BYTES) {
+                return false;
+            }
+            if (n > 0 && (!readRecord(n - 1) || record.getInt(CRC_AT) != map.getInt(16))) {
+                return false;
+            }
+            index = map;
+            covered = n;
+            players = p;
+            generation = g;
+            return true;
+        }
+    }
+
+    private Path directory() {
+        Path parent = logPath.toAbsolutePath().getParent();
+        return parent != null ? parent : Path.of(".");
+    }
+
+    private Path indexPath(long g) {
+        return logPath.resolveSibling(indexPrefix + g);
+    }
+
+    // <기록>.idx.* (쓰다 만 .tmp 포함)
+    private boolean isIndexFile(Path file) {
+        return file.getFileName().toString().startsWith(indexPrefix);
+    }
+
+    // 파일 이름의 세대 번호, 색인 파일 이름이 아니면 -1
+    private long indexGeneration(Path file) {
+        String suffix = file.getFileName().toString().substring(indexPrefix.length());
+        if (suffix.isEmpty() || suffix.length() > 18 || !suffix.chars().allMatch(Character::isDigit)) {
+            return -1;
+        }
+        return Long.parseLong(suffix);
+    }
+
+    // 매핑한 세대 말고는 모두 지움 (세대 번호가 없던 예전 <기록>.idx 포함)
+    // 아직 매핑이 남아 지울 수 없는 파일(Windows)은 다음에 열 때 지운다
+    private void removeStaleIndexes() throws IOException {
+        deleteQuietly(logPath.resolveSibling(logPath.getFileName() + ".idx"));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory(), this::isIndexFile)) {
+            for (Path file : files) {
+                if (generation < 0 || indexGeneration(file) != generation) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 다음에 열 때 다시 지움
+        }
+    }
+
+    // 색인 뒤의 레코드만 읽어 꼬리에 넣음. 색인이 없을 때만 파일 전체를 한 번 읽고 바로 색인을 만든다
+    private void loadTail() throws IOException {
+        tailCount = 0;
+        tailBest.clear();
+        ByteBuffer chunk = ByteBuffer.allocateDirect(RECORD_BYTES * 1024);
+        for (long next = covered; next < count; ) {
+            int n = (int) Math.min(1024, count - next);
+            chunk.clear().limit(n * RECORD_BYTES);
+            readFully(chunk, LOG_HEADER + next * RECORD_BYTES);
+            for (int i = 0; i < n; i++) {
+                int at = i * RECORD_BYTES;
+                addTail(next + i, chunk.getInt(at + 24), name(chunk, at + 36));
+            }
+            next += n;
+        }
+        if (tailCount >= REBUILD_TAIL) {
+            rebuildIndex();
+        }
+    }
+
+    private void addTail(long number, int score, String player) {
+        if (tailCount == tailKeys.length) {
+            tailKeys = Arrays.copyOf(tailKeys, tailCount * 2);
+        }
+        long key = key(score, number);
+        tailKeys[tailCount++] = key;
+        tailBest.merge(player, key, Math::max);
+    }
+
+    // 점수가 같으면 먼저 기록된 게임이 앞에 오도록 번호를 뒤집어 붙임
+    private static long key(int score, long number) {
+        return (long) score << 32 | (~number & 0xffffffffL);
+    }
+
+    private static long number(long key) {
+        return ~key & 0xffffffffL;
+    }
+
+    private static int score(long key) {
+        return (int) (key >> 32);
+    }
+
+    // 결과 하나를 덧붙이고 디스크에 내릴 때까지 기다림. 돌려준 Entry 의 record 가 레코드 번호
+    public synchronized Entry append(String player, GameResult result, long durationMillis, long endedAtMillis)
+            throws IOException {
+        if (count > 0xffffffffL) {
+            throw new IOException("score file full: " + logPath);
+        }
+        byte[] name = nameBytes(player);
+        record.clear();
+        record.putLong(result.seed()).putLong(endedAtMillis).putLong(durationMillis)
+                .putInt(result.score()).putInt(result.lines()).putInt(result.pieces()).put(name);
+        crc.reset();
+        crc.update(record.array(), 0, CRC_AT);
+        record.putInt((int) crc.getValue()).flip();
+        writeFully(record, LOG_HEADER + count * RECORD_BYTES);
+        if (sync) {
+            log.force(false);
+        }
+        long number = count++;
+        addTail(number, result.score(), name(name));
+        if (tailCount >= REBUILD_TAIL) {
+            rebuildIndex();
+        }
+        return new Entry(number, name(name), result.seed(), result.score(), result.lines(), result.pieces(),
+                durationMillis, endedAtMillis);
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    // 점수 높은 순 k 개. 색인의 앞 k 개와 정렬한 꼬리를 합친다
+    public synchronized List<Entry> top(int k) throws IOException {
+        long[] tail = Arrays.copyOf(tailKeys, tailCount);
+        Arrays.sort(tail);
+        List<Entry> entries = new ArrayList<>();
+        int t = tail.length - 1;
+        long i = 0;
+        while (entries.size() < k && (i < covered || t >= 0)) {
+            long fromIndex = i < covered ? index.getLong(INDEX_HEADER + (int) i * 8) : Long.MIN_VALUE;
+            long fromTail = t >= 0 ? tail[t] : Long.MIN_VALUE;
+            if (fromIndex >= fromTail) {
+                entries.add(entry(number(fromIndex)));
+                i++;
+            } else {
+                entries.add(entry(number(fromTail)));
+                t--;
+            }
+        }
+        return entries;
+    }
+
+    // score 보다 높은 점수의 게임 수 + 1. 색인은 이진 탐색, 꼬리는 훑음
+    public synchronized long rank(int score) {
+        // 이보다 크거나 같은 키는 점수가 더 높음
+        long bound = (long) score + 1 << 32;
+        long lo = 0;
+        long hi = covered;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (index.getLong(INDEX_HEADER + (int) mid * 8) >= bound) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        long higher = lo;
+        for (int t = 0; t < tailCount; t++) {
+            if (score(tailKeys[t]) > score) {
+                higher++;
+            }
+        }
+        return higher + 1;
+    }
+
+    // 플레이어의 최고 기록, 없으면 null. 색인의 플레이어 구역은 이름 바이트 순이라 이진 탐색한다
+    public synchronized Entry best(String player) throws IOException {
+        byte[] name = nameBytes(player);
+        long best = Long.MIN_VALUE;
+        int at = findPlayer(name);
+        if (at >= 0) {
+            best = index.getLong(at + NAME_BYTES);
+        }
+        Long tail = tailBest.get(name(name));
+        if (tail != null) {
+            best = Math.max(best, tail);
+        }
+        return best == Long.MIN_VALUE ? null : entry(number(best));
+    }
+
+    private int findPlayer(byte[] name) {
+        byte[] probe = new byte[NAME_BYTES];
+        int base = INDEX_HEADER + (int) covered * 8;
+        int lo = 0;
+        int hi = players - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            index.get(base + mid * PLAYER_BYTES, probe);
+            int c = Arrays.compareUnsigned(probe, name);
+            if (c == 0) {
+                return base + mid * PLAYER_BYTES;
+            } else if (c < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    // 색인과 꼬리를 합쳐 다음 세대 색인을 임시 파일에 쓰고 fsync 한 뒤 제 이름으로 옮김 (이미 있는 파일은 덮지 않음)
+    // 키와 플레이어 구역 모두 정렬된 두 줄을 합치기만 하므로 색인 전체를 힙에 올리지 않는다
+    private void rebuildIndex() throws IOException {
+        long[] tail = Arrays.copyOf(tailKeys, tailCount);
+        Arrays.sort(tail);
+        List<Map.Entry<byte[], Long>> tailPlayers = new ArrayList<>();
+        for (Map.Entry<String, Long> e : tailBest.entrySet()) {
+            tailPlayers.add(Map.entry(nameBytes(e.getKey()), e.getValue()));
+        }
+        tailPlayers.sort((a, b) -> Arrays.compareUnsigned(a.getKey(), b.getKey()));
+
+        long next = lastGeneration + 1;
+        Path target = indexPath(next);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long total = covered + tail.length;
+        if (total > (Integer.MAX_VALUE - INDEX_HEADER) / 8 - 1) {
+            throw new IOException("score index would exceed 2 GB: " + target);
+        }
+        int merged;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                    1 << 16));
+            // 플레이어 수는 합쳐 봐야 알므로 머리는 나중에 다시 씀
+            out.write(new byte[INDEX_HEADER]);
+            int t = tail.length - 1;
+            for (long i = 0; i < covered || t >= 0; ) {
+                long fromIndex = i < covered ? index.getLong(INDEX_HEADER + (int) i * 8) : Long.MIN_VALUE;
+                if (t >= 0 && tail[t] > fromIndex) {
+                    out.writeLong(tail[t--]);
+                } else {
+                    out.writeLong(fromIndex);
+                    i++;
+                }
+            }
+            merged = 0;
+            byte[] name = new byte[NAME_BYTES];
+            int base = INDEX_HEADER + (int) covered * 8;
+            int p = 0;
+            int q = 0;
+            while (p < players || q < tailPlayers.size()) {
+                int c;
+                if (p == players) {
+                    c = 1;
+                } else {
+                    index.get(base + p * PLAYER_BYTES, name);
+                    c = q == tailPlayers.size() ? -1 : Arrays.compareUnsigned(name, tailPlayers.get(q).getKey());
+                }
+                if (c < 0) {
+                    out.write(name);
+                    out.writeLong(index.getLong(base + p++ * PLAYER_BYTES + NAME_BYTES));
+                } else if (c > 0) {
+                    out.write(tailPlayers.get(q).getKey());
+                    out.writeLong(tailPlayers.get(q++).getValue());
+                } else {
+                    out.write(name);
+                    out.writeLong(Math.max(index.getLong(base + p++ * PLAYER_BYTES + NAME_BYTES),
+                            tailPlayers.get(q++).getValue()));
+                }
+                merged++;
+            }
+            out.flush();
+            readRecord(total - 1);
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER).putInt(INDEX_MAGIC).putInt(merged).putLong(total)
+                    .putInt(record.getInt(CRC_AT)).putInt(0).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        lastGeneration = next;
+        if (!mapIndex(next)) {
+            throw new IOException("rebuilt score index does not match " + logPath);
+        }
+        removeStaleIndexes();
+        loadTail();
+    }
+
+    private Entry entry(long number) throws IOException {
+        if (!readRecord(number)) {
+            throw new IOException("corrupt score record " + number + " in " + logPath);
+        }
+        return new Entry(number, name(record, 36), record.getLong(0), record.getInt(24), record.getInt(28),
+                record.getInt(32), record.getLong(16), record.getLong(8));
+    }
+
+    // 레코드 하나를 record 에 읽고 CRC 가 맞는지
+    private boolean readRecord(long number) throws IOException {
+        record.clear();
+        readFully(record, LOG_HEADER + number * RECORD_BYTES);
+        crc.reset();
+        crc.update(record.array(), 0, CRC_AT);
+        return record.getInt(CRC_AT) == (int) crc.getValue();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of " + logPath);
+            }
+        }
+        buffer.flip();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            log.write(buffer, position + buffer.position());
+        }
+    }
+
+    // UTF-8 로 24바이트까지, 글자가 중간에 잘리지 않게 자르고 0 으로 채움
+    static byte[] nameBytes(String player) {
+        byte[] utf8 = player.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(utf8.length, NAME_BYTES);
+        while (length < utf8.length && length > 0 && (utf8[length] & 0xc0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(Arrays.copyOf(utf8, length), NAME_BYTES);
+    }
+
+    private static String name(byte[] bytes) {
+        int length = 0;
+        while (length < bytes.length && bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static String name(ByteBuffer buffer, int at) {
+        byte[] bytes = new byte[NAME_BYTES];
+        buffer.get(at, bytes);
+        return name(bytes);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        log.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args.length % 2 == 0) {
+            System.err.println("usage: ScoreStore <file> [--top 10] [--player name]");
+            System.exit(2);
+        }
+        int top = 10;
+        String player = null;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--top" -> top = Integer.parseInt(args[i + 1]);
+                case "--player" -> player = args[i + 1];
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        long start = System.nanoTime();
+        try (ScoreStore store = open(Path.of(args[0]))) {
+            System.out.printf("%d games (opened in %.1f ms)%n", store.size(), (System.nanoTime() - start) / 1e6);
+            List<Entry> entries = player == null ? store.top(top) : new ArrayList<>();
+            if (player != null && store.best(player) != null) {
+                entries.add(store.best(player));
+            }
+            for (Entry e : entries) {
+                System.out.printf("#%d %-12s score %d, %d lines, %d pieces, %.1f s, seed %d%n",
+                        store.rank(e.score()), e.player(), e.score(), e.lines(), e.pieces(),
+                        e.durationMillis() / 1e3, e.seed());
+            }
+        }
+    }
+}
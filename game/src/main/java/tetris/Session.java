@@ -0,0 +1,135 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+// 서버에서 도는 게임 한 판 (스프린트 1명 또는 대전 2명). 틱은 SessionScheduler 의 작업 스레드 하나에서만 돈다
+// 입력은 선택자 스레드가 플레이어별 CommandQueue 에 넣고, 틱이 시작할 때 꺼내 적용한다
+final class Session {
+    enum Mode { SPRINT, VERSUS }
+
+    // 한 번에 지운 줄 수 -> 상대에게 보내는 방해 줄 수
+    private static final int[] GARBAGE = {0, 0, 1, 2, 4};
+
+    static final class Player implements CommandQueue.Handler {
+        final Connection connection;
+        final PlayManager game;
+        final CommandQueue inputs = new CommandQueue(64);
+        private long sentVersion = -1;
+        private int linesSeen = 0;
+
+        Player(Connection connection, long seed) {
+            this.connection = connection;
+            this.game = new PlayManager(seed, BoardMode.BITBOARD);
+            this.game.setGravityCurve(GravityCurve.standard(GameServer.TICK_RATE));
+        }
+
+        @Override
+        public void handle(Action action, long enqueuedNanos) {
+            game.apply(action);
+        }
+    }
+
+    final int id;
+    final Mode mode;
+    final Player[] players;
+    private final SplittableRandom holes;
+    private boolean finished = false;
+
+    Session(int id, Mode mode, long seed, Connection... connections) {
+        this.id = id;
+        this.mode = mode;
+        this.holes = new SplittableRandom(seed);
+        this.players = new Player[connections.length];
+        for (int i = 0; i < connections.length; i++) {
+            players[i] = new Player(connections[i], seed);
+            connections[i].playerIndex = i;
+            connections[i].session = this;
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    // 틱 도중 오류가 난 세션: 끝 프레임 없이 연결을 끊고 끝난 것으로 둠
+    void abort() {
+        finished = true;
+        for (Player player : players) {
+            player.connection.session = null;
+            player.connection.close();
+        }
+    }
+
+    void start(ByteBuffer scratch) {
+        for (int i = 0; i < players.length; i++) {
+            Protocol.begin(scratch, Protocol.START);
+            scratch.putInt(id).put((byte) i).put((byte) players.length);
+            players[i].connection.send(Protocol.end(scratch), -1);
+        }
+    }
+
+    // scratch 는 작업 스레드의 프레임 버퍼
+    void tick(ByteBuffer scratch) {
+        if (finished) {
+            return;
+        }
+        for (Player player : players) {
+            player.inputs.drain(player);
+            player.game.step();
+        }
+        if (mode == Mode.VERSUS) {
+            for (int i = 0; i < players.length; i++) {
+                Player player = players[i];
+                int cleared = player.game.getLines() - player.linesSeen;
+                player.linesSeen = player.game.getLines();
+                if (cleared > 0) {
+                    players[1 - i].game.addGarbage(GARBAGE[Math.min(cleared, 4)], holes.nextInt(player.game.getCols()));
+                }
+            }
+        }
+        for (int i = 0; i < players.length; i++) {
+            Player player = players[i];
+            if (player.game.getVersion() != player.sentVersion) {
+                player.sentVersion = player.game.getVersion();
+                Snapshot state = player.game.snapshot();
+                Protocol.begin(scratch, Protocol.STATE);
+                scratch.put((byte) i);
+                state.writeTo(scratch);
+                Protocol.end(scratch);
+                for (Player viewer : players) {
+                    viewer.connection.send(scratch.rewind(), i);
+                }
+            }
+        }
+        checkEnd(scratch);
+    }
+
+    private void checkEnd(ByteBuffer scratch) {
+        boolean lost0 = players[0].game.isGameOver() || players[0].connection.isClosed();
+        boolean over;
+        boolean won0;
+        boolean won1 = false;
+        if (mode == Mode.SPRINT) {
+            won0 = players[0].game.getLines() >= Protocol.SPRINT_LINES;
+            over = won0 || lost0;
+        } else {
+            boolean lost1 = players[1].game.isGameOver() || players[1].connection.isClosed();
+            over = lost0 || lost1;
+            won0 = lost1 && !lost0;
+            won1 = lost0 && !lost1;
+        }
+        if (!over) {
+            return;
+        }
+        finished = true;
+        for (int i = 0; i < players.length; i++) {
+            PlayManager game = players[i].game;
+            Protocol.begin(scratch, Protocol.END);
+            scratch.put((byte) ((i == 0 ? won0 : won1) ? 1 : 0));
+            scratch.putInt(game.getScore()).putInt(game.getLines()).putInt(game.getPieces());
+            players[i].connection.send(Protocol.end(scratch), -1);
+            players[i].connection.session = null;
+        }
+    }
+}
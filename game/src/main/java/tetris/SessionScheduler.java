@@ -0,0 +1,156 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// 모든 세션의 틱을 작업 스레드 몇 개가 나눠 돌리는 타이머 휠. 세션마다 스레드를 두지 않는다
+// 작업 스레드 하나가 틱 주기를 SLOTS 칸으로 나눈 휠을 돌고, 새 세션은 칸에 돌아가며 넣어 주기 안에서 부하가 고르게 퍼진다
+// (Java 17 이라 가상 스레드 대신 이 방식. 세션 수천 개도 스레드는 코어 수만큼)
+final class SessionScheduler {
+    private static final int SLOTS = 16;
+
+    private final Worker[] workers;
+    private final long periodNanos;
+    private volatile boolean running = true;
+
+    SessionScheduler(int threads, int tickRate) {
+        this.periodNanos = 1_000_000_000L / tickRate;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+            Thread thread = new Thread(workers[i], "session-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // 세션이 가장 적은 작업 스레드에 넣음
+    void add(Session session) {
+        Worker target = workers[0];
+        for (Worker worker : workers) {
+            if (worker.sessions.get() < target.sessions.get()) {
+                target = worker;
+            }
+        }
+        target.sessions.incrementAndGet();
+        target.inbox.add(session);
+    }
+
+    int getSessions() {
+        int total = 0;
+        for (Worker worker : workers) {
+            total += worker.sessions.get();
+        }
+        return total;
+    }
+
+    int getThreads() {
+        return workers.length;
+    }
+
+    // 예정 시각보다 틱이 늦게 시작한 정도. 작업 스레드별 기록을 모아서 돌려줌
+    LatencyHistogram tickLatency() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (Worker worker : workers) {
+            worker.latency.addTo(total);
+        }
+        return total;
+    }
+
+    // 작업 스레드에 다음 칸 경계에서 기록을 비우라고 알림
+    void resetLatency() {
+        for (Worker worker : workers) {
+            worker.resetRequested = true;
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private final class Worker implements Runnable {
+        final Queue<Session> inbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger sessions = new AtomicInteger();
+        final LatencyHistogram latency = new LatencyHistogram();
+        volatile boolean resetRequested = false;
+        private final List<List<Session>> wheel = new ArrayList<>(SLOTS);
+        private final ByteBuffer scratch = ByteBuffer.allocate(Protocol.MAX_FRAME + 2);
+        private int nextSlot = 0;
+
+        Worker() {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel.add(new ArrayList<>());
+            }
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            for (long turn = 0; running; turn++) {
+                for (int slot = 0; slot < SLOTS && running; slot++) {
+                    long deadline = start + turn * periodNanos + slot * periodNanos / SLOTS;
+                    waitUntil(deadline);
+                    if (resetRequested) {
+                        resetRequested = false;
+                        latency.reset();
+                    }
+                    for (Session session; (session = inbox.poll()) != null; ) {
+                        if (!advance(session, true)) {
+                            sessions.decrementAndGet();
+                            continue;
+                        }
+                        wheel.get(nextSlot).add(session);
+                        nextSlot = (nextSlot + 1) % SLOTS;
+                    }
+                    tickSlot(wheel.get(slot), deadline);
+                }
+            }
+        }
+
+        private void tickSlot(List<Session> slot, long deadline) {
+            for (int i = 0; i < slot.size(); ) {
+                Session session = slot.get(i);
+                long start = System.nanoTime();
+                latency.record(start - deadline);
+                boolean ok = advance(session, false);
+                Metrics.recordTick(System.nanoTime() - start);
+                if (!ok || session.isFinished()) {
+                    // 순서는 상관없으므로 마지막 것과 바꿔서 뺌
+                    slot.set(i, slot.get(slot.size() - 1));
+                    slot.remove(slot.size() - 1);
+                    sessions.decrementAndGet();
+                } else {
+                    i++;
+                }
+            }
+        }
+
+        // 세션 하나의 오류로 작업 스레드(와 그 휠의 다른 세션 전부)를 잃지 않도록, 오류 난 세션만 끊고 false
+        private boolean advance(Session session, boolean start) {
+            try {
+                if (start) {
+                    session.start(scratch);
+                } else {
+                    session.tick(scratch);
+                }
+                return true;
+            } catch (RuntimeException e) {
+                System.err.println("session " + session.id + " failed: " + e);
+                session.abort();
+                return false;
+            }
+        }
+
+        // 스레드가 코어 수만큼 있으므로 spin 하지 않고 park 만 함
+        private void waitUntil(long deadline) {
+            for (long remaining; (remaining = deadline - System.nanoTime()) > 0; ) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+}
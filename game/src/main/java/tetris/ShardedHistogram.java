@@ -0,0 +1,28 @@
+package tetris;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 여러 스레드가 기록하는 LatencyHistogram. 스레드마다 자기 조각에만 쓰므로 잠금도 CAS 도 없다
+// 읽을 때 모든 조각을 더한다 (쓰는 중인 조각은 값이 조금 늦을 뿐)
+final class ShardedHistogram {
+    private final List<LatencyHistogram> shards = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<LatencyHistogram> local = ThreadLocal.withInitial(() -> {
+        LatencyHistogram shard = new LatencyHistogram();
+        shards.add(shard);
+        return shard;
+    });
+
+    void record(long nanos) {
+        local.get().record(nanos);
+    }
+
+    // 지금까지의 기록을 합친 새 히스토그램
+    LatencyHistogram merged() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (LatencyHistogram shard : shards) {
+            shard.addTo(total);
+        }
+        return total;
+    }
+}
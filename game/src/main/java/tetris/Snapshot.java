@@ -0,0 +1,207 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+
+// 한 틱이 끝난 뒤의 게임 상태. 만든 뒤에는 바뀌지 않으므로 어느 스레드에서 읽어도 된다
+// 그리기, 관전, 리플레이가 같은 형식을 쓴다
+public final class Snapshot {
+    private final long tick;
+    private final int rows;
+    private final int cols;
+    // top 행부터 맨 아래 행까지만 담음 (그 위는 빈 행). 아주 높은 보드에서도 복사가 쌓인 높이만큼만 든다
+    private final int top;
+    private final long[] board;
+    private final int currentType;
+    private final int currentRotation;
+    private final int currentX;
+    private final int currentY;
+    // 현재 조각을 떨어뜨렸을 때 멈추는 y (고스트 조각)
+    private final int ghostY;
+    private final int nextType;
+    private final int score;
+    private final int lines;
+    private final int pieces;
+    private final boolean gameOver;
+
+    // board 는 top 행부터의 비트마스크
+    Snapshot(long tick, int rows, int cols, int top, long[] board, Mino current, int ghostY, int nextType,
+             int score, int lines, int pieces, boolean gameOver) {
+        this(tick, rows, cols, top, board, current.type, current.rotation, current.x, current.y, ghostY,
+                nextType, score, lines, pieces, gameOver);
+    }
+
+    Snapshot(long tick, int rows, int cols, long[] board, int currentType, int currentRotation,
+             int currentX, int currentY, int nextType, int score, int lines, int pieces, boolean gameOver) {
+        this(tick, rows, cols, 0, board, currentType, currentRotation, currentX, currentY,
+                drop(rows, cols, board, currentType, currentRotation, currentX, currentY), nextType, score, lines,
+                pieces, gameOver);
+    }
+
+    private Snapshot(long tick, int rows, int cols, int top, long[] board, int currentType, int currentRotation,
+                     int currentX, int currentY, int ghostY, int nextType, int score, int lines, int pieces,
+                     boolean gameOver) {
+        this.tick = tick;
+        this.rows = rows;
+        this.cols = cols;
+        this.top = top;
+        this.board = board;
+        this.currentType = currentType;
+        this.currentRotation = currentRotation;
+        this.currentX = currentX;
+        this.currentY = currentY;
+        this.ghostY = ghostY;
+        this.nextType = nextType;
+        this.score = score;
+        this.lines = lines;
+        this.pieces = pieces;
+        this.gameOver = gameOver;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // y 행의 비트마스크 (x열 = x번째 비트)
+    public long row(int y) {
+        return y < top ? 0 : board[y - top];
+    }
+
+    public boolean isFilled(int x, int y) {
+        return (row(y) & (1L << x)) != 0;
+    }
+
+    // 가장 높은 블록이 있는 행 이하. 이 행보다 위는 모두 빈 행
+    public int getTop() {
+        return top;
+    }
+
+    public int getCurrentType() {
+        return currentType;
+    }
+
+    public int getCurrentRotation() {
+        return currentRotation;
+    }
+
+    public int getCurrentX() {
+        return currentX;
+    }
+
+    public int getCurrentY() {
+        return currentY;
+    }
+
+    public int getGhostY() {
+        return ghostY;
+    }
+
+    // 엔진 밖에서 만든 스냅샷(관전, 파일)의 고스트 위치. 열 높이가 없으니 한 칸씩 내려 본다
+    private static int drop(int rows, int cols, long[] board, int type, int rotation, int x, int y) {
+        int shape = Mino.shape(type, rotation);
+        int left = x + Mino.MIN_DX[shape];
+        if (left < 0 || left + Mino.WIDTH[shape] > cols) {
+            return y;
+        }
+        int height = Mino.HEIGHT[shape];
+        for (; ; y++) {
+            int top = y + 1 + Mino.MIN_DY[shape];
+            if (top + height > rows) {
+                return y;
+            }
+            for (int k = 0; k < height; k++) {
+                if (top + k >= 0 && (board[top + k] & Mino.ROW_MASKS[shape * 4 + k] << left) != 0) {
+                    return y;
+                }
+            }
+        }
+    }
+
+    public int getNextType() {
+        return nextType;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLines() {
+        return lines;
+    }
+
+    public int getLevel() {
+        return 1 + lines / 10;
+    }
+
+    public int getPieces() {
+        return pieces;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    // 직렬화 크기: 고정 머리 31바이트 + 행마다 ceil(cols / 8) 바이트
+    public int encodedSize() {
+        return 31 + rows * rowBytes(cols);
+    }
+
+    private static int rowBytes(int cols) {
+        return (cols + 7) / 8;
+    }
+
+    public void writeTo(ByteBuffer out) {
+        out.putLong(tick);
+        out.putShort((short) rows);
+        out.put((byte) cols);
+        out.putInt(score);
+        out.putInt(lines);
+        out.putInt(pieces);
+        out.put((byte) currentType);
+        out.put((byte) currentRotation);
+        out.putShort((short) currentX);
+        out.putShort((short) currentY);
+        out.put((byte) nextType);
+        out.put((byte) (gameOver ? 1 : 0));
+        int bytes = rowBytes(cols);
+        for (int y = 0; y < rows; y++) {
+            long bits = row(y);
+            for (int i = 0; i < bytes; i++) {
+                out.put((byte) (bits >>> (i * 8)));
+            }
+        }
+    }
+
+    public static Snapshot readFrom(ByteBuffer in) {
+        long tick = in.getLong();
+        int rows = in.getShort() & 0xFFFF;
+        int cols = in.get() & 0xFF;
+        int score = in.getInt();
+        int lines = in.getInt();
+        int pieces = in.getInt();
+        int currentType = in.get();
+        int currentRotation = in.get();
+        int currentX = in.getShort();
+        int currentY = in.getShort();
+        int nextType = in.get();
+        boolean gameOver = in.get() != 0;
+        int bytes = rowBytes(cols);
+        long[] board = new long[rows];
+        for (int y = 0; y < rows; y++) {
+            long bits = 0;
+            for (int i = 0; i < bytes; i++) {
+                bits |= (in.get() & 0xFFL) << (i * 8);
+            }
+            board[y] = bits;
+        }
+        return new Snapshot(tick, rows, cols, board, currentType, currentRotation, currentX, currentY,
+                nextType, score, lines, pieces, gameOver);
+    }
+}
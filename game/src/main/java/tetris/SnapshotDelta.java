@@ -0,0 +1,164 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+
+// 이전 스냅샷 대비 바뀐 것만 쓰는 인코딩 (관전 스트림용)
+// varint 틱 차이, 플래그 1바이트, 그 뒤 플래그 순서대로:
+//   CLEAR  지운 줄 (이전 보드 기준 행 비트마스크, 나머지 행은 아래로 내림)
+//   ROWS   바뀐 행 비트마스크 + 행마다 varint 칸 비트
+//   PIECE  (종류 << 2 | 방향) 1바이트 + zigzag x, y 변화량
+//   NEXT   다음 조각 1바이트
+//   COUNTS zigzag 점수/줄/조각 수 변화량
+//   OVER   값 없음 (게임 오버)
+final class SnapshotDelta {
+    static final int CLEAR = 1;
+    static final int ROWS = 2;
+    static final int PIECE = 4;
+    static final int NEXT = 8;
+    static final int COUNTS = 16;
+    static final int OVER = 32;
+
+    private SnapshotDelta() {
+    }
+
+    // 행 비트마스크가 long 하나이므로 64행까지만
+    static boolean supports(Snapshot state) {
+        return state.getRows() <= 64;
+    }
+
+    static void write(Snapshot before, Snapshot after, ByteBuffer out) {
+        int rows = after.getRows();
+        Varint.write(out, after.getTick() - before.getTick());
+        int flagsAt = out.position();
+        out.put((byte) 0);
+        int flags = 0;
+
+        long[] shifted = new long[rows];
+        long cleared = 0;
+        if (after.getLines() > before.getLines()) {
+            cleared = findCleared(before, after, after.getLines() - before.getLines(), shifted);
+        }
+        if (cleared != 0) {
+            flags |= CLEAR;
+            Varint.write(out, cleared);
+        }
+        shift(before, cleared, shifted);
+        long changed = changedRows(shifted, after);
+        if (changed != 0) {
+            flags |= ROWS;
+            Varint.write(out, changed);
+            for (long bits = changed; bits != 0; bits &= bits - 1) {
+                Varint.write(out, after.row(Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        if (after.getCurrentType() != before.getCurrentType() || after.getCurrentRotation() != before.getCurrentRotation()
+                || after.getCurrentX() != before.getCurrentX() || after.getCurrentY() != before.getCurrentY()) {
+            flags |= PIECE;
+            out.put((byte) (after.getCurrentType() << 2 | after.getCurrentRotation()));
+            Varint.writeSigned(out, after.getCurrentX() - before.getCurrentX());
+            Varint.writeSigned(out, after.getCurrentY() - before.getCurrentY());
+        }
+        if (after.getNextType() != before.getNextType()) {
+            flags |= NEXT;
+            out.put((byte) after.getNextType());
+        }
+        if (after.getScore() != before.getScore() || after.getLines() != before.getLines()
+                || after.getPieces() != before.getPieces()) {
+            flags |= COUNTS;
+            Varint.writeSigned(out, after.getScore() - before.getScore());
+            Varint.writeSigned(out, after.getLines() - before.getLines());
+            Varint.writeSigned(out, after.getPieces() - before.getPieces());
+        }
+        if (after.isGameOver()) {
+            flags |= OVER;
+        }
+        out.put(flagsAt, (byte) flags);
+    }
+
+    static Snapshot read(Snapshot before, ByteBuffer in) {
+        int rows = before.getRows();
+        long tick = before.getTick() + Varint.read(in);
+        int flags = in.get();
+        long cleared = (flags & CLEAR) != 0 ? Varint.read(in) : 0;
+        long[] board = new long[rows];
+        shift(before, cleared, board);
+        if ((flags & ROWS) != 0) {
+            for (long bits = Varint.read(in); bits != 0; bits &= bits - 1) {
+                board[Long.numberOfTrailingZeros(bits)] = Varint.read(in);
+            }
+        }
+        int type = before.getCurrentType();
+        int rotation = before.getCurrentRotation();
+        int x = before.getCurrentX();
+        int y = before.getCurrentY();
+        if ((flags & PIECE) != 0) {
+            int piece = in.get();
+            type = piece >> 2;
+            rotation = piece & 3;
+            x += (int) Varint.readSigned(in);
+            y += (int) Varint.readSigned(in);
+        }
+        int next = (flags & NEXT) != 0 ? in.get() : before.getNextType();
+        int score = before.getScore();
+        int lines = before.getLines();
+        int pieces = before.getPieces();
+        if ((flags & COUNTS) != 0) {
+            score += (int) Varint.readSigned(in);
+            lines += (int) Varint.readSigned(in);
+            pieces += (int) Varint.readSigned(in);
+        }
+        return new Snapshot(tick, rows, before.getCols(), board, type, rotation, x, y, next, score, lines, pieces,
+                (flags & OVER) != 0);
+    }
+
+    // before 에서 cleared 행을 빼고 남은 행을 아래로 내린 보드 (위는 빈 행)
+    private static void shift(Snapshot before, long cleared, long[] into) {
+        int target = into.length - 1;
+        for (int y = into.length - 1; y >= 0; y--) {
+            if ((cleared >>> y & 1) == 0) {
+                into[target--] = before.row(y);
+            }
+        }
+        for (; target >= 0; target--) {
+            into[target] = 0;
+        }
+    }
+
+    private static long changedRows(long[] shifted, Snapshot after) {
+        long changed = 0;
+        for (int y = 0; y < shifted.length; y++) {
+            if (shifted[y] != after.row(y)) {
+                changed |= 1L << y;
+            }
+        }
+        return changed;
+    }
+
+    // 줄 수가 count 만큼 늘었을 때, 이어진 4행 안에서 count 개를 지웠다고 보면 바뀐 행이 가장 적어지는 조합
+    // 줄 삭제로 위쪽 행이 모두 한 칸씩 밀리므로, 맞추면 바뀐 행 대부분을 보내지 않아도 된다
+    private static long findCleared(Snapshot before, Snapshot after, int count, long[] work) {
+        if (count > 4) {
+            return 0;
+        }
+        int rows = before.getRows();
+        shift(before, 0, work);
+        long best = 0;
+        int bestChanged = Long.bitCount(changedRows(work, after));
+        // 창의 맨 위 행은 항상 지운 것으로 두어 같은 조합을 두 번 보지 않음
+        for (int top = 0; top < rows; top++) {
+            for (int subset = 1; subset < 16; subset += 2) {
+                if (Integer.bitCount(subset) != count || top + 32 - Integer.numberOfLeadingZeros(subset) > rows) {
+                    continue;
+                }
+                long mask = (long) subset << top;
+                shift(before, mask, work);
+                int changed = Long.bitCount(changedRows(work, after));
+                if (changed < bestChanged) {
+                    best = mask;
+                    bestChanged = changed;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,64 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+
+// 관전자 쪽: SpectatorServer 가 보낸 바이트에서 프레임을 꺼내 상태를 다시 만든다
+final class SpectatorDecoder {
+    private Snapshot state;
+    private long frames;
+    private long keyframes;
+
+    // 키프레임을 받기 전에는 null
+    Snapshot getState() {
+        return state;
+    }
+
+    long getFrames() {
+        return frames;
+    }
+
+    long getKeyframes() {
+        return keyframes;
+    }
+
+    // in 은 읽기 모드. 완전한 프레임만 읽고 남은 조각은 그대로 둠 (호출자가 compact)
+    void accept(ByteBuffer in) {
+        for (int length; (length = Protocol.available(in)) > 0; ) {
+            int next = in.position() + 2 + length;
+            in.getShort();
+            byte type = in.get();
+            if (type == Protocol.KEYFRAME) {
+                state = Snapshot.readFrom(in);
+                keyframes++;
+            } else if (type == Protocol.DELTA) {
+                if (state == null) {
+                    throw new IllegalStateException("delta before first keyframe");
+                }
+                state = SnapshotDelta.read(state, in);
+            } else {
+                throw new IllegalStateException("unknown frame type " + type);
+            }
+            if (in.position() != next) {
+                throw new IllegalStateException("frame length mismatch");
+            }
+            frames++;
+        }
+    }
+
+    // 보드, 조각, 점수까지 같은지 (관전 스트림 검증용)
+    static boolean sameState(Snapshot a, Snapshot b) {
+        if (a.getTick() != b.getTick() || a.getRows() != b.getRows() || a.getCols() != b.getCols()
+                || a.getCurrentType() != b.getCurrentType() || a.getCurrentRotation() != b.getCurrentRotation()
+                || a.getCurrentX() != b.getCurrentX() || a.getCurrentY() != b.getCurrentY()
+                || a.getNextType() != b.getNextType() || a.getScore() != b.getScore() || a.getLines() != b.getLines()
+                || a.getPieces() != b.getPieces() || a.isGameOver() != b.isGameOver()) {
+            return false;
+        }
+        for (int y = 0; y < a.getRows(); y++) {
+            if (a.row(y) != b.row(y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+// SpectatorServer 의 인코딩 규칙: 스냅샷마다 키프레임/델타를 정해 한 번만 만들고 관전자 버퍼마다 붙인다
+// 버퍼가 찬 관전자는 델타를 버리고 자리가 나면 키프레임부터 다시 받음. 소켓과 떨어져 있어 선택자 스레드 하나에서만 쓴다
+final class SpectatorEncoder {
+    // 관전자 하나에게 보낼 바이트 (쓰기 모드)
+    static class Target {
+        final ByteBuffer out;
+        boolean needsKeyframe = true;
+
+        Target(int capacity) {
+            this.out = ByteBuffer.allocate(capacity);
+        }
+    }
+
+    private final int keyframeTicks;
+    private final ByteBuffer frame = ByteBuffer.allocate(Protocol.MAX_FRAME + 2);
+    private final ByteBuffer keyframe = ByteBuffer.allocate(Protocol.MAX_FRAME + 2);
+    private Snapshot last;
+    private long lastKeyframeTick;
+    // 통계 (선택자 스레드가 쓰고 다른 스레드는 대충 읽기만 함)
+    private volatile long frames;
+    private volatile long keyframes;
+    private volatile long resyncs;
+
+    SpectatorEncoder(int keyframeTicks) {
+        this.keyframeTicks = keyframeTicks;
+    }
+
+    boolean hasState() {
+        return last != null;
+    }
+
+    long getFrames() {
+        return frames;
+    }
+
+    long getKeyframes() {
+        return keyframes;
+    }
+
+    long getResyncs() {
+        return resyncs;
+    }
+
+    // 새 게임(틱이 되돌아감)이나 크기가 바뀌면 델타를 만들 수 없음
+    boolean keyframeDue(Snapshot state) {
+        return last == null || !SnapshotDelta.supports(state) || last.getRows() != state.getRows()
+                || last.getCols() != state.getCols() || state.getTick() < last.getTick()
+                || state.getTick() - lastKeyframeTick >= keyframeTicks;
+    }
+
+    void encode(Snapshot state, List<? extends Target> targets) {
+        boolean key = keyframeDue(state);
+        Snapshot before = last;
+        last = state;
+        keyframe.clear().limit(0);
+        frames++;
+        if (key) {
+            lastKeyframeTick = state.getTick();
+            keyframes++;
+            for (Target target : targets) {
+                sendKeyframe(target);
+            }
+            return;
+        }
+        Protocol.begin(frame, Protocol.DELTA);
+        SnapshotDelta.write(before, state, frame);
+        Protocol.end(frame);
+        for (Target target : targets) {
+            if (target.needsKeyframe) {
+                sendKeyframe(target);
+            } else if (target.out.remaining() >= frame.remaining()) {
+                target.out.put(frame.duplicate());
+            } else {
+                // 밀린 만큼은 그대로 보내고, 그 뒤는 자리가 나면 키프레임부터
+                target.needsKeyframe = true;
+                resyncs++;
+            }
+        }
+    }
+
+    // 지금 상태의 키프레임은 틱마다 필요할 때 한 번만 만든다. 늦게 들어온 관전자도 이것부터
+    void sendKeyframe(Target target) {
+        if (keyframe.limit() == 0) {
+            Protocol.begin(keyframe, Protocol.KEYFRAME);
+            last.writeTo(keyframe);
+            Protocol.end(keyframe);
+        }
+        if (target.out.remaining() >= keyframe.remaining()) {
+            target.out.put(keyframe.duplicate());
+            target.needsKeyframe = false;
+        } else {
+            target.needsKeyframe = true;
+        }
+    }
+}
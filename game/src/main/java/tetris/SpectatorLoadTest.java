@@ -0,0 +1,205 @@
+package tetris;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// SpectatorServer 부하 시험. 봇 게임 하나를 틱마다 내보내고, 선택자 스레드 하나로 관전 소켓 수천 개를 받아 상태를 다시 만든다
+// 관전자당 대역폭을 전체 스냅샷을 매번 보냈을 때와 비교하고, 끝에 모든 관전자의 상태가 마지막 스냅샷과 같은지 확인
+// 실행: java -cp tetris.jar tetris.SpectatorLoadTest [--spectators 2000] [--seconds 20] [--tick-rate 60]
+//       [--keyframe-ticks 600] [--batch-ms 50] [--budget-ms 2] [--slow 0]
+public final class SpectatorLoadTest {
+    private static final class Viewer {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        final SpectatorDecoder decoder = new SpectatorDecoder();
+        // 느린 관전자 흉내: 이 간격마다만 읽음
+        final long readNanos;
+        long nextRead;
+
+        Viewer(SocketChannel channel, long readNanos) {
+            this.channel = channel;
+            this.readNanos = readNanos;
+        }
+    }
+
+    private long bytes;
+
+    public static void main(String[] args) throws Exception {
+        int spectators = 2000;
+        int seconds = 20;
+        int tickRate = 60;
+        int keyframeTicks = 600;
+        long batchMs = 50;
+        long budgetMs = 2;
+        int slow = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--spectators" -> spectators = Integer.parseInt(args[i + 1]);
+                case "--seconds" -> seconds = Integer.parseInt(args[i + 1]);
+                case "--tick-rate" -> tickRate = Integer.parseInt(args[i + 1]);
+                case "--keyframe-ticks" -> keyframeTicks = Integer.parseInt(args[i + 1]);
+                case "--batch-ms" -> batchMs = Long.parseLong(args[i + 1]);
+                case "--budget-ms" -> budgetMs = Long.parseLong(args[i + 1]);
+                case "--slow" -> slow = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        try (SpectatorServer server = new SpectatorServer(new InetSocketAddress("127.0.0.1", 0), keyframeTicks,
+                batchMs * 1_000_000L)) {
+            Thread serverThread = new Thread(server, "spectators");
+            serverThread.setDaemon(true);
+            serverThread.start();
+            new SpectatorLoadTest().run(server, spectators, slow, seconds, tickRate, budgetMs * 1_000_000L, System.out);
+        }
+    }
+
+    private void run(SpectatorServer server, int count, int slow, int seconds, int tickRate, long budget,
+                     PrintStream out) throws IOException {
+        Selector selector = Selector.open();
+        List<Viewer> viewers = new ArrayList<>();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getPort());
+        for (int i = 0; i < count; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            // 앞쪽 slow 명은 1초에 한 번만 읽음
+            Viewer viewer = new Viewer(channel, i < slow ? 1_000_000_000L : 0);
+            channel.register(selector, SelectionKey.OP_READ, viewer);
+            viewers.add(viewer);
+        }
+
+        Game game = new Game(budget);
+        long tickNanos = 1_000_000_000L / tickRate;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long nextTick = start;
+        long published = 0;
+        long fullBytes = 0;
+        Snapshot last = null;
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                break;
+            }
+            if (now >= nextTick) {
+                nextTick += tickNanos;
+                Snapshot state = game.tick();
+                if (state != null) {
+                    server.publish(state);
+                    last = state;
+                    published++;
+                    fullBytes += Protocol.HEADER + state.encodedSize();
+                }
+            }
+            selector.select(Math.max(1, (nextTick - System.nanoTime()) / 1_000_000));
+            for (SelectionKey key : selector.selectedKeys()) {
+                read((Viewer) key.attachment(), now);
+            }
+            selector.selectedKeys().clear();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        // 남은 배치가 다 도착할 때까지 모든 관전자가 읽음
+        long drainEnd = System.nanoTime() + 3_000_000_000L;
+        int matched = 0;
+        while (System.nanoTime() < drainEnd && matched < viewers.size()) {
+            selector.select(10);
+            selector.selectedKeys().clear();
+            matched = 0;
+            for (Viewer viewer : viewers) {
+                read(viewer, Long.MAX_VALUE);
+                Snapshot state = viewer.decoder.getState();
+                if (last != null && state != null && SpectatorDecoder.sameState(state, last)) {
+                    matched++;
+                }
+            }
+        }
+
+        double elapsed = elapsedNanos / 1e9;
+        long frames = 0;
+        long keyframes = 0;
+        for (Viewer viewer : viewers) {
+            frames += viewer.decoder.getFrames();
+            keyframes += viewer.decoder.getKeyframes();
+        }
+        out.printf("%d spectators, %d slow, %.1f s: published %d states (%.0f/s), game %d pieces %d lines%n",
+                count, slow, elapsed, published, published / elapsed, game.playManager.getPieces(),
+                game.playManager.getLines());
+        out.printf("per spectator: %.0f B/s delta stream vs %.0f B/s full snapshots (%.1fx smaller)%n",
+                bytes / elapsed / count, fullBytes / elapsed, fullBytes * (double) count / Math.max(1, bytes));
+        out.printf("fan-out: %.0f frames/s, %.1f MB/s to all spectators; server keyframes %d, resyncs %d%n",
+                frames / elapsed, bytes / elapsed / 1e6, server.getKeyframes(), server.getResyncs());
+        out.printf("received keyframes %d; %d/%d spectators match the final state%n", keyframes, matched, count);
+        for (Viewer viewer : viewers) {
+            viewer.channel.close();
+        }
+        selector.close();
+    }
+
+    private void read(Viewer viewer, long now) {
+        if (now < viewer.nextRead) {
+            return;
+        }
+        viewer.nextRead = now + viewer.readNanos;
+        ByteBuffer in = viewer.in;
+        try {
+            int n = viewer.channel.read(in);
+            if (n <= 0) {
+                return;
+            }
+            bytes += n;
+            in.flip();
+            viewer.decoder.accept(in);
+            in.compact();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 보내는 쪽 게임: 새 조각마다 봇이 자리를 고르면 한 틱에 옮기고, 이후 틱마다 한 칸씩 내림. 끝나면 새 게임
+    private static final class Game {
+        final AutoPlayer bot;
+        PlayManager playManager;
+        long seed = 1;
+        int decided = -1;
+        long version = -1;
+
+        Game(long budget) {
+            bot = new AutoPlayer(Heuristic.DEFAULT, ForkJoinPool.commonPool(), budget);
+            playManager = new PlayManager(seed);
+        }
+
+        // 바뀌었으면 새 스냅샷, 아니면 null
+        Snapshot tick() {
+            if (playManager.isGameOver()) {
+                playManager = new PlayManager(++seed);
+                decided = -1;
+            }
+            if (playManager.getPieces() != decided) {
+                decided = playManager.getPieces();
+                AutoPlayer.Decision decision = bot.decide(playManager.snapshot());
+                if (decision != null) {
+                    for (Action action : decision.path()) {
+                        playManager.apply(action);
+                    }
+                }
+            } else {
+                playManager.apply(Action.SOFT_DROP);
+            }
+            playManager.step();
+            if (playManager.getVersion() == version) {
+                return null;
+            }
+            version = playManager.getVersion();
+            return playManager.snapshot();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package tetris;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// 게임 하나를 여러 관전자에게 내보내는 서버. 틱마다 전체 스냅샷 대신 SnapshotDelta 만 보낸다
+// 게임 스레드는 publish 로 스냅샷을 넘기기만 하고, 인코딩과 소켓 쓰기는 선택자 스레드 하나가 한다
+// 프레임은 한 번만 인코딩해 관전자마다 버퍼에 붙이고, batchNanos 마다 모아서 한 번에 씀 (관전자 수천 명이면 틱마다 쓰면 시스템 콜이 너무 많음)
+// 버퍼가 찬 느린 관전자는 그동안의 델타를 버리고, 자리가 나면 최신 키프레임부터 다시 받는다. 늦게 들어온 관전자도 키프레임부터 시작
+public final class SpectatorServer implements Runnable, Closeable {
+    // 관전자 하나가 밀려도 되는 바이트. 넘으면 델타를 버리고 키프레임으로 다시 맞춤
+    static final int SPECTATOR_BUFFER = 8 * 1024;
+
+    private static final class Spectator extends SpectatorEncoder.Target {
+        final SocketChannel channel;
+
+        Spectator(SocketChannel channel) {
+            super(SPECTATOR_BUFFER);
+            this.channel = channel;
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final SpectatorEncoder encoder;
+    private final long batchNanos;
+    private final Queue<Snapshot> published = new ConcurrentLinkedQueue<>();
+    private final List<Spectator> spectators = new ArrayList<>();
+    private final ByteBuffer discard = ByteBuffer.allocate(256);
+    // 선택자 스레드만 씀
+    private long nextFlush;
+    private volatile boolean running = true;
+    // 통계 (선택자 스레드가 쓰고 다른 스레드는 대충 읽기만 함)
+    private volatile int spectatorCount;
+    private volatile long bytesSent;
+
+    // keyframeTicks: 이 틱 수마다 모든 관전자에게 키프레임을 보냄. batchNanos: 소켓에 쓰는 간격
+    public SpectatorServer(InetSocketAddress address, int keyframeTicks, long batchNanos) throws IOException {
+        this.encoder = new SpectatorEncoder(keyframeTicks);
+        this.batchNanos = batchNanos;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 4096);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public int getSpectators() {
+        return spectatorCount;
+    }
+
+    // 인코딩한 프레임 수 (키프레임 포함, 관전자 수와 무관)
+    public long getFrames() {
+        return encoder.getFrames();
+    }
+
+    public long getKeyframes() {
+        return encoder.getKeyframes();
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    // 느려서 델타를 버리고 키프레임으로 다시 맞춘 횟수
+    public long getResyncs() {
+        return encoder.getResyncs();
+    }
+
+    // 키프레임 하나가 프레임 최대 크기 안에 들어가는 보드만 내보낼 수 있음 (아주 큰 보드는 안 됨)
+    public static boolean supports(Snapshot state) {
+        return Protocol.HEADER + state.encodedSize() <= Protocol.MAX_FRAME + 2;
+    }
+
+    // 게임 스레드: 바뀐 틱의 스냅샷을 넘김. 막히지 않음
+    public void publish(Snapshot state) {
+        if (!supports(state)) {
+            throw new IllegalArgumentException("board too large to spectate: " + state.getCols() + "x" + state.getRows());
+        }
+        published.offer(state);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            nextFlush = System.nanoTime() + batchNanos;
+            while (running) {
+                long wait = Math.max(1, (nextFlush - System.nanoTime()) / 1_000_000);
+                selector.select(wait);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+                selector.selectedKeys().clear();
+                for (Snapshot state; (state = published.poll()) != null; ) {
+                    encoder.encode(state, spectators);
+                }
+                if (System.nanoTime() >= nextFlush) {
+                    nextFlush += batchNanos;
+                    flush();
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                throw new IllegalStateException("spectator server stopped", e);
+            }
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void accept() throws IOException {
+        for (SocketChannel channel; (channel = server.accept()) != null; ) {
+            channel.configureBlocking(false);
+            Spectator spectator = new Spectator(channel);
+            channel.register(selector, SelectionKey.OP_READ, spectator);
+            spectators.add(spectator);
+            if (encoder.hasState()) {
+                encoder.sendKeyframe(spectator);
+            }
+        }
+        spectatorCount = spectators.size();
+    }
+
+    // 관전자는 보내는 것이 없음. 끊김만 확인
+    private void read(SelectionKey key) {
+        Spectator spectator = (Spectator) key.attachment();
+        try {
+            discard.clear();
+            if (spectator.channel.read(discard) < 0) {
+                drop(spectator);
+            }
+        } catch (IOException e) {
+            drop(spectator);
+        }
+    }
+
+    private void flush() {
+        long sent = 0;
+        for (int i = spectators.size() - 1; i >= 0; i--) {
+            Spectator spectator = spectators.get(i);
+            if (spectator.out.position() == 0) {
+                continue;
+            }
+            try {
+                spectator.out.flip();
+                sent += spectator.channel.write(spectator.out);
+                spectator.out.compact();
+            } catch (IOException e) {
+                drop(spectator);
+            }
+        }
+        bytesSent += sent;
+    }
+
+    private void drop(Spectator spectator) {
+        spectators.remove(spectator);
+        spectatorCount = spectators.size();
+        try {
+            spectator.channel.close();
+        } catch (IOException ignored) {
+            // 이미 끊긴 연결
+        }
+    }
+
+    // 선택자는 run 스레드에서만 닫음
+    private void closeQuietly() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException ignored) {
+            // 끝내는 중
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+}
@@ -0,0 +1,354 @@
+package tetris;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class Tetris extends JFrame {
+    public Tetris() {
+        setTitle("테트리스 게임!!");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setResizable(false);
+
+        Game game = new Game();
+        add(game);
+        pack();
+
+        setLocationRelativeTo(null);
+        setVisible(true);
+
+        game.start();
+    }
+    public static void main(String[] args) {
+        new Tetris();
+    }
+
+    class Game extends JPanel implements Runnable {
+        // 화면 높이는 고정, 너비는 보드 열 수 + 옆 패널. 열이 많으면 칸을 줄임 (10열 보드면 500x600, 칸 30)
+        public static final int HEIGHT = 600;
+        public static final int CELL_SIZE = 30;
+        public static final int PANEL_WIDTH = 200;
+        private static final int MAX_BOARD_WIDTH = 1200;
+        // 시뮬레이션은 초당 60틱 고정, 그리기는 -Dtetris.fps 로 따로 정함
+        public static final int TICK_RATE = 60;
+
+        private Thread gameThread;
+        private final FixedStepLoop loop;
+        private PlayManager playManager;
+        // 키 입력은 EDT 에서 큐에 넣기만 하고, 적용은 시뮬레이션 스레드가 틱마다 한다
+        private final CommandQueue commands = new CommandQueue(256);
+        private final LatencyStats inputLatency;
+        private final CommandQueue.Handler applyCommand = this::applyCommand;
+        // 시뮬레이션 스레드가 틱마다 바꿔 끼우고, paintComponent 는 이것만 읽는다
+        private volatile Snapshot snapshot;
+        private long publishedVersion;
+        private final Renderer renderer;
+        // 마지막으로 다시 그리기를 요청한 스냅샷 (루프 스레드만 씀)
+        private Snapshot requested;
+        // -Dtetris.render=active 일 때만: Canvas 에 렌더 스레드가 직접 그림
+        private CanvasFrameSink canvas;
+        private ActiveRenderLoop renderLoop;
+        // -Dtetris.bot=true 일 때만: 새 조각이 나올 때마다 자동 플레이어가 풀에서 수를 고르고 시뮬레이션 스레드가 둔다
+        private AutoPlayer bot;
+        private final AtomicBoolean thinking = new AtomicBoolean();
+        private int botPieces = -1;
+        private volatile AutoPlayer.Decision decision;
+        // 탐색이 예외로 끝나면 한 번 알리고 봇을 멈춤 (같은 오류로 조각마다 다시 탐색하지 않게)
+        private volatile boolean botFailed;
+        // 봇이 고른 자리까지의 경로를 시뮬레이션 스레드에서 지금 조각 위치로부터 다시 찾는 데 씀
+        private final Placements placements = new Placements();
+        private int[] placementsOut = new int[0];
+        // -Dtetris.replay=<파일> 일 때만: 입력을 기록했다가 게임이 끝나거나 창을 닫을 때 파일 끝에 붙임
+        private ReplayRecorder recorder;
+        private Path replayPath;
+        // -Dtetris.spectatePort=<포트> 일 때만: 바뀐 틱마다 관전자에게 델타를 내보냄
+        private SpectatorServer spectators;
+
+        // 보드 너비가 MAX_BOARD_WIDTH 를 넘지 않는 칸 크기 (ReplayRenderer 도 같은 크기로 그림)
+        static int cellSize(int cols) {
+            return Math.min(CELL_SIZE, MAX_BOARD_WIDTH / cols);
+        }
+
+        public Game() {
+            // -Dtetris.rows / -Dtetris.cols 로 보드 크기를 정함 (스트레스 시험용, 열은 64까지)
+            int rows = Integer.getInteger("tetris.rows", PlayManager.ROWS);
+            int cols = Integer.getInteger("tetris.cols", PlayManager.COLS);
+            int cellSize = cellSize(cols);
+            int width = cols * cellSize + PANEL_WIDTH;
+            renderer = new Renderer(cellSize, width, HEIGHT);
+            setPreferredSize(new Dimension(width, HEIGHT));
+            setBackground(Color.BLACK);
+            setFocusable(true);
+
+            playManager = new PlayManager(Long.getLong("tetris.seed", System.nanoTime()), rows, cols,
+                    BoardMode.fromProperty());
+            playManager.setGravityCurve(GravityCurve.fromProperty(TICK_RATE));
+            String replay = System.getProperty("tetris.replay");
+            if (replay != null) {
+                replayPath = Path.of(replay);
+                recorder = ReplayRecorder.attach(playManager);
+                Runtime.getRuntime().addShutdownHook(new Thread(this::saveReplay, "replay"));
+            }
+            snapshot = playManager.snapshot();
+            publishedVersion = playManager.getVersion();
+            Integer spectatePort = Integer.getInteger("tetris.spectatePort");
+            if (spectatePort != null && !SpectatorServer.supports(snapshot)) {
+                System.err.println("Board too large to spectate, ignoring tetris.spectatePort");
+            } else if (spectatePort != null) {
+                try {
+                    // 10초마다 키프레임, 50ms 마다 모아서 보냄
+                    spectators = new SpectatorServer(new InetSocketAddress(spectatePort), TICK_RATE * 10, 50_000_000L);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                Thread thread = new Thread(spectators, "spectators");
+                thread.setDaemon(true);
+                thread.start();
+                spectators.publish(snapshot);
+            }
+
+            int frameRate = Integer.getInteger("tetris.fps", 60);
+            boolean active = "active".equals(System.getProperty("tetris.render"));
+            if (active) {
+                // 능동 모드에서는 시뮬레이션 루프가 그리기를 요청하지 않음
+                loop = new FixedStepLoop(TICK_RATE, TICK_RATE, this::tick, () -> { });
+                setLayout(new BorderLayout());
+                canvas = new CanvasFrameSink(width, HEIGHT);
+                add(canvas);
+                renderLoop = new ActiveRenderLoop(frameRate, () -> snapshot, renderer, canvas);
+            } else {
+                loop = new FixedStepLoop(TICK_RATE, frameRate, this::tick, this::repaintChanged);
+            }
+            inputLatency = new LatencyStats(1_000_000_000L / frameRate);
+            if (Boolean.getBoolean("tetris.bot")) {
+                long budget = Long.getLong("tetris.botBudgetMs", 20) * 1_000_000L;
+                bot = new AutoPlayer(Heuristic.DEFAULT, ForkJoinPool.commonPool(), budget);
+            }
+            // 지표는 jconsole 의 tetris:type=Metrics 로 보고, -Dtetris.metricsDump=<초> 면 주기적으로 글로도 씀
+            if (Metrics.ENABLED) {
+                Metrics.registerMBean();
+                long dumpSeconds = Long.getLong("tetris.metricsDump", 0);
+                if (dumpSeconds > 0) {
+                    Metrics.startDump(dumpSeconds * 1_000_000_000L, System.err);
+                }
+            }
+            if (Boolean.getBoolean("tetris.jitter")) {
+                loop.setReporter(5_000_000_000L, jitter -> {
+                    System.out.println("Tick jitter: " + jitter);
+                    System.out.println("Input latency: " + inputLatency + " rejected=" + commands.getRejected());
+                    inputLatency.reset();
+                    if (bot != null) {
+                        System.out.printf("Bot search: %.0f nodes/s, table %s%n", bot.getNodesPerSecond(), bot.getTable());
+                    }
+                });
+                if (renderLoop != null) {
+                    renderLoop.setReporter(5_000_000_000L, render -> {
+                        System.out.println("Frame pacing: " + render.getPacing());
+                        System.out.println("Frame time: " + render.getFrameTime());
+                    });
+                }
+            }
+
+            KeyAdapter keys = new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_LEFT -> enqueue(Action.LEFT);
+                        case KeyEvent.VK_RIGHT -> enqueue(Action.RIGHT);
+                        case KeyEvent.VK_DOWN -> enqueue(Action.SOFT_DROP);
+                        case KeyEvent.VK_UP -> enqueue(Action.ROTATE);
+                        case KeyEvent.VK_SPACE -> enqueue(Action.HARD_DROP);
+                    }
+                }
+            };
+            addKeyListener(keys);
+            if (canvas != null) {
+                canvas.addKeyListener(keys);
+            }
+        }
+
+        public void start() {
+            gameThread = new Thread(this);
+            gameThread.start();
+
+            if (renderLoop != null) {
+                new Thread(renderLoop, "render").start();
+                canvas.requestFocus();
+            }
+        }
+
+        @Override
+        public void run() {
+            loop.run();
+        }
+
+        private void enqueue(Action action) {
+            Tracer.key(action);
+            commands.offer(action, System.nanoTime());
+        }
+
+        private void applyCommand(Action action, long enqueuedNanos) {
+            playManager.apply(action);
+            long now = System.nanoTime();
+            inputLatency.record(now - enqueuedNanos);
+            // 이 틱이 끝나면 나오는 스냅샷에 보임
+            Metrics.inputApplied(playManager.getTicks() + 1, enqueuedNanos, now);
+            Tracer.apply(action, now - enqueuedNanos);
+        }
+
+        // 바뀐 행과 옆 패널만 다시 그리도록 요청
+        private void repaintChanged() {
+            Snapshot state = snapshot;
+            renderer.repaintChanged(this, requested, state);
+            requested = state;
+        }
+
+        private void tick() {
+            commands.drain(applyCommand);
+            playManager.step();
+
+            if (playManager.getVersion() != publishedVersion) {
+                publishedVersion = playManager.getVersion();
+                snapshot = playManager.snapshot();
+                if (spectators != null) {
+                    spectators.publish(snapshot);
+                }
+            }
+            if (bot != null && !botFailed) {
+                playDecision();
+                think(snapshot);
+            }
+
+            if (playManager.isGameOver()) {
+                saveReplay();
+                loop.stop();
+                if (renderLoop != null) {
+                    renderLoop.stop();
+                }
+                String message = "게임 오버! 점수: " + playManager.getScore() + saveScore();
+                SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(null, message);
+                    System.exit(0);
+                });
+            }
+        }
+
+        // 새 조각마다 한 번, 시뮬레이션 스레드를 막지 않도록 풀에서 탐색한다
+        private void think(Snapshot state) {
+            if (state.isGameOver() || state.getPieces() == botPieces || !thinking.compareAndSet(false, true)) {
+                return;
+            }
+            botPieces = state.getPieces();
+            CompletableFuture.supplyAsync(() -> bot.decide(state), ForkJoinPool.commonPool())
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            System.err.println("Bot stopped: " + error);
+                            botFailed = true;
+                        } else if (result != null) {
+                            decision = result;
+                        }
+                        thinking.set(false);
+                    });
+        }
+
+        // 탐색이 끝난 수를 현재 조각에 두고 바닥까지 내린다. 그 사이 조각이 바뀌었으면 버림
+        // 탐색한 스냅샷 뒤로 중력이 조각을 내렸을 수 있으므로 탐색 때의 경로를 그대로 쓰지 않고,
+        // 지금 조각 위치에서 고른 자리 (rotation, x, y) 까지의 경로를 다시 찾는다. 갈 수 없으면 다시 탐색
+        private void playDecision() {
+            AutoPlayer.Decision move = decision;
+            if (move == null) {
+                return;
+            }
+            decision = null;
+            int pieces = playManager.getPieces();
+            if (pieces != botPieces || playManager.isGameOver()) {
+                return;
+            }
+            Action[] path = pathTo(move.rotation(), move.x(), move.y());
+            if (path == null) {
+                botPieces = -1;
+                return;
+            }
+            for (Action action : path) {
+                playManager.apply(action);
+            }
+            if (playManager.getPieces() == pieces) {
+                playManager.apply(Action.HARD_DROP);
+            }
+        }
+
+        // 지금 조각에서 (rotation, x, y) 고정 위치까지의 입력 순서. 갈 수 없으면 null
+        private Action[] pathTo(int rotation, int x, int y) {
+            Board board = playManager.getBoard();
+            int states = (board.getCols() + 4) * (board.getRows() + 4) * Mino.ROTATIONS;
+            if (placementsOut.length < states) {
+                placementsOut = new int[states];
+            }
+            Mino mino = playManager.getCurrentMino();
+            int count = placements.enumerate(board, mino.type, mino.rotation, mino.x, mino.y, placementsOut);
+            for (int i = 0; i < count; i++) {
+                int state = placementsOut[i];
+                if (placements.rotation(state) == rotation && placements.x(state) == x
+                        && placements.y(state) == y) {
+                    return placements.path(state);
+                }
+            }
+            return null;
+        }
+
+        // 게임 오버 때는 시뮬레이션 스레드에서, 창을 닫을 때는 루프를 멈춘 뒤 종료 훅에서 한 번만 저장
+        private synchronized void saveReplay() {
+            if (recorder == null) {
+                return;
+            }
+            if (Thread.currentThread() != gameThread) {
+                loop.stop();
+                try {
+                    gameThread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            try (ReplayLog log = ReplayLog.open(replayPath)) {
+                log.append(recorder.finish());
+            } catch (IOException e) {
+                System.err.println("Failed to save replay: " + e);
+            }
+            recorder = null;
+        }
+
+        // 끝난 게임을 점수 기록(-Dtetris.scores, 기본 scores.dat)에 남기고 순위와 최고 점수를 글로 돌려줌
+        // 플레이어 이름은 -Dtetris.player, 없으면 OS 사용자 이름
+        private String saveScore() {
+            Path path = Path.of(System.getProperty("tetris.scores", "scores.dat"));
+            String player = System.getProperty("tetris.player", System.getProperty("user.name", "player"));
+            GameResult result = new GameResult(playManager.getSeed(), playManager.getScore(), playManager.getLines(),
+                    playManager.getPieces());
+            try (ScoreStore store = ScoreStore.open(path)) {
+                store.append(player, result, playManager.getTicks() * 1000 / TICK_RATE, System.currentTimeMillis());
+                ScoreStore.Entry best = store.best(player);
+                return "\n순위: " + store.rank(result.score()) + " / " + store.size() + ", 최고 점수: " + best.score();
+            } catch (IOException e) {
+                System.err.println("Failed to save score: " + e);
+                return "";
+            }
+        }
+
+        // 배경 이미지가 패널 전체를 덮으므로 super.paintComponent 로 지우지 않음
+        // 능동 모드에서는 Canvas 가 패널을 덮고 렌더 스레드가 그리므로 여기서는 그리지 않음
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (canvas == null) {
+                renderer.paint((Graphics2D) g, snapshot, getGraphicsConfiguration());
+            }
+        }
+    }
+ }
\ No newline at end of file
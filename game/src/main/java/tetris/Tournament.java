@@ -0,0 +1,287 @@
+package tetris;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// 화면 없는 봇 대회. 고정된 시드 묶음으로 후보 가중치마다 게임을 모든 코어에서 돌리고, 끝나는 게임부터 CSV 에 한 줄씩 쓴다
+// 실행: java -cp tetris.jar tetris.Tournament [--games 100] [--seed 1] [--threads N] [--max-pieces 500]
+//       [--budget-ms 0] [--weights a,b,c,d] [--out results.csv] [--sweep holes=-1:0:11] [--evolve 10x16]
+public final class Tournament {
+    private static final String[] WEIGHT_NAMES = {"aggregateHeight", "linesCleared", "holes", "bumpiness"};
+
+    public record Outcome(int generation, int candidate, Heuristic heuristic, long seed,
+                          int score, int lines, int pieces, long nanos) {
+        public double piecesPerSecond() {
+            return nanos == 0 ? 0 : pieces * 1e9 / nanos;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final long[] seeds;
+    private final int maxPieces;
+    private final long budgetNanos;
+
+    // budgetNanos 가 0 이면 수마다 끝까지 탐색하므로 같은 시드, 같은 가중치면 결과가 항상 같다
+    public Tournament(ForkJoinPool pool, long[] seeds, int maxPieces, long budgetNanos) {
+        this.pool = pool;
+        this.seeds = seeds.clone();
+        this.maxPieces = maxPieces;
+        this.budgetNanos = budgetNanos;
+    }
+
+    public static long[] seeds(long base, int count) {
+        SplittableRandom random = new SplittableRandom(base);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    // 게임 하나. 탐색도 같은 풀에서 나눠 돌므로 게임 수가 코어 수보다 적어도 코어를 다 쓴다
+    public Outcome play(int generation, int candidate, Heuristic heuristic, long seed) {
+        PlayManager playManager = new PlayManager(seed, BoardMode.BITBOARD);
+        AutoPlayer bot = new AutoPlayer(heuristic, pool, budgetNanos, new TranspositionTable(12));
+        long start = System.nanoTime();
+        while (!playManager.isGameOver() && playManager.getPieces() < maxPieces) {
+            bot.playMove(playManager);
+        }
+        return new Outcome(generation, candidate, heuristic, seed, playManager.getScore(), playManager.getLines(),
+                playManager.getPieces(), System.nanoTime() - start);
+    }
+
+    // 모든 (후보, 시드) 게임을 돌리고 끝나는 대로 sink 에 넘긴다. 결과는 모아 두지 않고 후보별 줄 수 합만 돌려줌
+    public long[] run(int generation, List<Heuristic> candidates, Consumer<Outcome> sink) {
+        LongAdder[] lines = new LongAdder[candidates.size()];
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int c = 0; c < candidates.size(); c++) {
+            int candidate = c;
+            lines[c] = new LongAdder();
+            for (long seed : seeds) {
+                tasks.add(pool.submit(() -> {
+                    Outcome outcome = play(generation, candidate, candidates.get(candidate), seed);
+                    lines[candidate].add(outcome.lines());
+                    sink.accept(outcome);
+                }));
+            }
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        long[] totals = new long[lines.length];
+        for (int c = 0; c < lines.length; c++) {
+            totals[c] = lines[c].sum();
+        }
+        return totals;
+    }
+
+    // name=from:to:steps 로 가중치 하나만 바꾼 후보들 (나머지는 base)
+    static List<Heuristic> sweep(Heuristic base, String spec) {
+        String[] parts = spec.split("[=:]");
+        int index = Arrays.asList(WEIGHT_NAMES).indexOf(parts[0]);
+        if (parts.length != 4 || index < 0) {
+            throw new IllegalArgumentException("sweep must look like holes=-1:0:11, got " + spec);
+        }
+        double from = Double.parseDouble(parts[1]);
+        double to = Double.parseDouble(parts[2]);
+        int steps = Integer.parseInt(parts[3]);
+        List<Heuristic> candidates = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            double[] w = base.weights();
+            w[index] = steps == 1 ? from : from + (to - from) * i / (steps - 1);
+            candidates.add(Heuristic.of(w));
+        }
+        return candidates;
+    }
+
+    // 유전 알고리즘: 무작위 후보에서 시작해 세대마다 적합도(줄 수 합)로 부모를 골라 교차/변이
+    // 교차는 두 부모 가중치를 적합도 비율로 섞고, 변이는 한 성분에 ±0.2 이내 값을 더함. 가장 좋은 후보 하나는 그대로 남김
+    Heuristic evolve(int generations, int population, SplittableRandom random, Consumer<Outcome> sink,
+                     PrintStream log) {
+        List<Heuristic> candidates = new ArrayList<>();
+        for (int i = 0; i < population; i++) {
+            double[] w = new double[WEIGHT_NAMES.length];
+            for (int k = 0; k < w.length; k++) {
+                w[k] = random.nextDouble(-1, 1);
+            }
+            candidates.add(Heuristic.of(w).normalized());
+        }
+
+        Heuristic best = candidates.get(0);
+        for (int generation = 0; generation < generations; generation++) {
+            long[] fitness = run(generation, candidates, sink);
+            int top = 0;
+            for (int c = 1; c < fitness.length; c++) {
+                if (fitness[c] > fitness[top]) {
+                    top = c;
+                }
+            }
+            best = candidates.get(top);
+            log.printf(Locale.ROOT, "generation %d: best %.1f lines/game %s%n", generation,
+                    (double) fitness[top] / seeds.length, best);
+            if (generation == generations - 1) {
+                break;
+            }
+
+            List<Heuristic> next = new ArrayList<>();
+            next.add(best);
+            while (next.size() < population) {
+                int a = pick(fitness, random);
+                int b = pick(fitness, random);
+                double[] wa = candidates.get(a).weights();
+                double[] wb = candidates.get(b).weights();
+                double fa = fitness[a] + 1;
+                double fb = fitness[b] + 1;
+                double[] child = new double[wa.length];
+                for (int k = 0; k < child.length; k++) {
+                    child[k] = (wa[k] * fa + wb[k] * fb) / (fa + fb);
+                }
+                if (random.nextInt(20) == 0) {
+                    child[random.nextInt(child.length)] += random.nextDouble(-0.2, 0.2);
+                }
+                next.add(Heuristic.of(child).normalized());
+            }
+            candidates = next;
+        }
+        return best;
+    }
+
+    // 무작위로 뽑은 후보 몇 개 중 적합도가 가장 높은 것
+    private static int pick(long[] fitness, SplittableRandom random) {
+        int size = Math.max(2, fitness.length / 10);
+        int best = random.nextInt(fitness.length);
+        for (int i = 1; i < size; i++) {
+            int c = random.nextInt(fitness.length);
+            if (fitness[c] > fitness[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // 게임이 끝날 때마다 한 줄씩 쓰고 바로 내보냄. 여러 게임 스레드가 동시에 부른다
+    static final class CsvSink implements Consumer<Outcome>, Closeable {
+        private final BufferedWriter out;
+        private final LongAdder games = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder score = new LongAdder();
+        private final LongAdder pieces = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        CsvSink(Path path) throws IOException {
+            out = path == null ? null : Files.newBufferedWriter(path);
+            if (out != null) {
+                out.write("generation,candidate,seed,score,lines,pieces,seconds,pieces_per_sec,"
+                        + String.join(",", WEIGHT_NAMES));
+                out.newLine();
+                out.flush();
+            }
+        }
+
+        @Override
+        public void accept(Outcome o) {
+            games.increment();
+            lines.add(o.lines());
+            score.add(o.score());
+            pieces.add(o.pieces());
+            nanos.add(o.nanos());
+            if (out == null) {
+                return;
+            }
+            double[] w = o.heuristic().weights();
+            String line = String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%.3f,%.1f,%.6f,%.6f,%.6f,%.6f",
+                    o.generation(), o.candidate(), o.seed(), o.score(), o.lines(), o.pieces(),
+                    o.nanos() / 1e9, o.piecesPerSecond(), w[0], w[1], w[2], w[3]);
+            synchronized (this) {
+                try {
+                    out.write(line);
+                    out.newLine();
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        String summary() {
+            long n = Math.max(1, games.sum());
+            return String.format(Locale.ROOT,
+                    "%d games: %.1f lines, %.0f score, %.1f pieces per game, %.0f pieces/s per game",
+                    games.sum(), (double) lines.sum() / n, (double) score.sum() / n, (double) pieces.sum() / n,
+                    nanos.sum() == 0 ? 0.0 : pieces.sum() * 1e9 / nanos.sum());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        int games = Integer.parseInt(options.getOrDefault("games", "100"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int maxPieces = Integer.parseInt(options.getOrDefault("max-pieces", "500"));
+        long budget = Long.parseLong(options.getOrDefault("budget-ms", "0")) * 1_000_000L;
+        Heuristic base = Heuristic.DEFAULT;
+        if (options.containsKey("weights")) {
+            base = Heuristic.of(Arrays.stream(options.get("weights").split(",")).mapToDouble(Double::parseDouble).toArray());
+        }
+        Path out = options.containsKey("out") ? Path.of(options.get("out")) : null;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Tournament tournament = new Tournament(pool, seeds(seed, games), maxPieces, budget);
+        long start = System.nanoTime();
+        try (CsvSink sink = new CsvSink(out)) {
+            if (options.containsKey("evolve")) {
+                String[] spec = options.get("evolve").split("x");
+                Heuristic best = tournament.evolve(Integer.parseInt(spec[0]), Integer.parseInt(spec[1]),
+                        new SplittableRandom(seed), sink, System.out);
+                System.out.println("best: " + best);
+            } else {
+                List<Heuristic> candidates = options.containsKey("sweep")
+                        ? sweep(base, options.get("sweep")) : List.of(base);
+                long[] lines = tournament.run(0, candidates, sink);
+                for (int c = 0; c < candidates.size(); c++) {
+                    System.out.printf(Locale.ROOT, "candidate %d: %.1f lines/game %s%n", c,
+                            (double) lines[c] / games, candidates.get(c));
+                }
+            }
+            System.out.println(sink.summary());
+        } finally {
+            pool.shutdown();
+        }
+        System.out.printf(Locale.ROOT, "%d threads, %.1f s%n", threads, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,91 @@
+package tetris;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Tracer 가 쓴 추적 파일을 읽어 사람이 볼 시간순 목록으로 바꾼다. 마지막 레코드가 잘려 있으면 버림
+// 실행: java -cp tetris.jar tetris.TraceLog <파일> [input|rotate|piece ...]  (분류를 주면 그것만 출력)
+public final class TraceLog {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSS")
+            .withZone(ZoneId.systemDefault());
+    private static final Action[] ACTIONS = Action.values();
+
+    private TraceLog() {
+    }
+
+    // 레코드 하나의 내용. a, b 의 뜻은 이벤트마다 다르다 (Tracer 의 기록 메서드 참고)
+    static String describe(int event, long a, long b) {
+        return switch (event) {
+            case Tracer.KEY -> "key " + ACTIONS[(int) a];
+            case Tracer.APPLY -> String.format("apply %s after %.3f ms in queue", ACTIONS[(int) a], b / 1e6);
+            case Tracer.ROTATION -> {
+                String piece = Mino.NAMES[(int) (a >> 8)] + " -> rotation " + (a & 0xff);
+                if (b < 0) {
+                    yield "rotate " + piece + " failed";
+                }
+                int[] offset = PlayManager.WALL_KICK_OFFSETS[(int) b];
+                yield b == 0 ? "rotate " + piece
+                        : "rotate " + piece + " with wall kick " + b + " (" + offset[0] + ", " + offset[1] + ")";
+            }
+            case Tracer.SPAWN -> "spawn " + Mino.NAMES[(int) a];
+            case Tracer.LOCK -> "lock " + Mino.NAMES[(int) a] + (b > 0 ? ", " + b + " lines" : "");
+            case Tracer.DROPPED -> a + " records dropped (trace buffer full)";
+            default -> "unknown event " + event + " (" + a + ", " + b + ")";
+        };
+    }
+
+    // 시각은 파일 머리의 (epoch ms, nanoTime) 한 쌍으로 벽시계 시각으로 바꾸고, 앞 레코드와의 간격을 같이 쓴다
+    public static int print(Path path, int categories, PrintStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("trace file larger than 2 GB: " + path);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < Tracer.HEADER_BYTES || map.getInt() != Tracer.MAGIC) {
+                throw new IOException("not a trace file: " + path);
+            }
+            long startMillis = map.getLong();
+            long startNanos = map.getLong();
+            long last = startNanos;
+            int count = 0;
+            while (map.remaining() >= Tracer.RECORD_BYTES) {
+                long nanos = map.getLong();
+                long header = map.getLong();
+                long a = map.getLong();
+                long b = map.getLong();
+                int event = (int) (header >>> 32);
+                if (event != Tracer.DROPPED && (Tracer.categoryOf(event) & categories) == 0) {
+                    continue;
+                }
+                long sinceStart = nanos - startNanos;
+                Instant time = Instant.ofEpochMilli(startMillis).plusNanos(sinceStart);
+                out.printf("%s %+10.3f ms  t%-4d %s%n", TIME.format(time), (nanos - last) / 1e6, (int) header,
+                        describe(event, a, b));
+                last = nanos;
+                count++;
+            }
+            return count;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: TraceLog <file> [input|rotate|piece ...]");
+            System.exit(2);
+        }
+        int categories = args.length == 1 ? Tracer.categories("all") : 0;
+        for (int i = 1; i < args.length; i++) {
+            categories |= Tracer.categories(args[i]);
+        }
+        int count = print(Path.of(args[0]), categories, System.out);
+        System.err.println(count + " records");
+    }
+}
@@ -0,0 +1,224 @@
+package tetris;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// 게임 이벤트 추적기. 기록은 고정 크기(32바이트) 이진 레코드로 미리 잡아 둔 링 버퍼에 넣고, 백그라운드 스레드가 파일로 내보낸다
+// 켤 분류는 -Dtetris.trace=input,rotate,piece (또는 all), 파일은 -Dtetris.traceFile (기본 tetris.trace)
+// 분류 플래그가 static final 이라 꺼진 분류의 기록 호출은 JIT 가 통째로 지우고, 모두 꺼져 있으면 링 버퍼도 만들지 않는다
+// 읽기: java -cp tetris.jar tetris.TraceLog <파일>
+public final class Tracer {
+    // 분류
+    static final int INPUT = 1;
+    static final int ROTATE = 2;
+    static final int PIECE = 4;
+    static final String[] CATEGORY_NAMES = {"input", "rotate", "piece"};
+
+    // 이벤트 (레코드의 a, b 값은 TraceLog.describe 참고)
+    static final int KEY = 1;
+    static final int APPLY = 2;
+    static final int ROTATION = 3;
+    static final int SPAWN = 4;
+    static final int LOCK = 5;
+    static final int DROPPED = 6;
+    static final String[] EVENT_NAMES = {"?", "key", "apply", "rotate", "spawn", "lock", "dropped"};
+
+    // 파일 머리: "TTR" + 버전, 시작 시각(epoch ms), 같은 순간의 nanoTime. 뒤로 레코드가 이어진다
+    static final int MAGIC = 'T' << 24 | 'T' << 16 | 'R' << 8 | 1;
+    static final int HEADER_BYTES = 20;
+    static final int RECORD_BYTES = 32;
+
+    private static final int CATEGORIES = categories(System.getProperty("tetris.trace", ""));
+    static final boolean TRACE_INPUT = (CATEGORIES & INPUT) != 0;
+    static final boolean TRACE_ROTATE = (CATEGORIES & ROTATE) != 0;
+    static final boolean TRACE_PIECE = (CATEGORIES & PIECE) != 0;
+
+    private Tracer() {
+    }
+
+    static int categories(String spec) {
+        int mask = 0;
+        for (String name : spec.split(",")) {
+            name = name.trim();
+            if (name.equals("all")) {
+                mask |= INPUT | ROTATE | PIECE;
+            } else if (!name.isEmpty()) {
+                int index = Arrays.asList(CATEGORY_NAMES).indexOf(name);
+                if (index < 0) {
+                    throw new IllegalArgumentException("unknown trace category " + name);
+                }
+                mask |= 1 << index;
+            }
+        }
+        return mask;
+    }
+
+    static int categoryOf(int event) {
+        return switch (event) {
+            case KEY, APPLY -> INPUT;
+            case ROTATION -> ROTATE;
+            case SPAWN, LOCK -> PIECE;
+            default -> 0;
+        };
+    }
+
+    // 키를 눌러 입력 큐에 넣음
+    static void key(Action action) {
+        if (TRACE_INPUT) {
+            Ring.INSTANCE.write(KEY, action.ordinal(), 0);
+        }
+    }
+
+    // 큐에서 꺼내 적용함. waitNanos 는 큐에서 기다린 시간
+    static void apply(Action action, long waitNanos) {
+        if (TRACE_INPUT) {
+            Ring.INSTANCE.write(APPLY, action.ordinal(), waitNanos);
+        }
+    }
+
+    // rotateMino 결과. kick 은 고른 Wall Kick 오프셋 번호, 못 돌렸으면 -1
+    static void rotate(int type, int newRotation, int kick) {
+        if (TRACE_ROTATE) {
+            Ring.INSTANCE.write(ROTATION, type << 8 | newRotation, kick);
+        }
+    }
+
+    static void spawn(int type) {
+        if (TRACE_PIECE) {
+            Ring.INSTANCE.write(SPAWN, type, 0);
+        }
+    }
+
+    static void lock(int type, int cleared) {
+        if (TRACE_PIECE) {
+            Ring.INSTANCE.write(LOCK, type, cleared);
+        }
+    }
+
+    // 여러 생산자, 소비자 하나인 링 버퍼. 칸마다 게시 번호를 두어 소비자는 다 쓴 칸까지만 읽는다
+    // 버퍼가 가득 차면 생산자는 기다리지 않고 레코드를 버린 뒤 그 수만 센다 (소비자가 dropped 레코드로 남김)
+    private static final class Ring implements Runnable {
+        static final Ring INSTANCE = new Ring(Path.of(System.getProperty("tetris.traceFile", "tetris.trace")),
+                Integer.getInteger("tetris.traceBuffer", 1 << 16));
+        private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+
+        private final int mask;
+        private final long[] data;
+        private final long[] published;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        // 소비자가 다 읽은 레코드 수. 생산자는 head - consumed 가 용량보다 작을 때만 칸을 잡는다
+        private volatile long consumed;
+        private volatile boolean running = true;
+        private final FileChannel channel;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+        private final Thread drainer;
+
+        private Ring(Path path, int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+            mask = size - 1;
+            data = new long[size * 4];
+            published = new long[size];
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                out.putInt(MAGIC).putLong(System.currentTimeMillis()).putLong(System.nanoTime());
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not open trace file " + path, e);
+            }
+            drainer = new Thread(this, "tracer");
+            drainer.setDaemon(true);
+            drainer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close, "tracer-close"));
+        }
+
+        void write(int event, long a, long b) {
+            long now = System.nanoTime();
+            long seq;
+            do {
+                seq = head.get();
+                if (seq - consumed > mask) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            } while (!head.compareAndSet(seq, seq + 1));
+            int slot = (int) seq & mask;
+            int i = slot * 4;
+            data[i] = now;
+            data[i + 1] = (long) event << 32 | Thread.currentThread().getId() & 0xffffffffL;
+            data[i + 2] = a;
+            data[i + 3] = b;
+            PUBLISHED.setRelease(published, slot, seq + 1);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (drain() == 0) {
+                        LockSupport.parkNanos(1_000_000);
+                    }
+                }
+                while (drain() > 0) {
+                    // 끝내기 전에 남은 레코드를 모두 씀
+                }
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("trace file write failed", e);
+            }
+        }
+
+        // 게시된 레코드를 out 이 찰 때까지 옮겨 파일에 씀. 옮긴 레코드 수를 돌려줌
+        private int drain() throws IOException {
+            long cursor = consumed;
+            int count = 0;
+            long lost = dropped.get();
+            if (lost > 0 && dropped.compareAndSet(lost, 0)) {
+                out.putLong(System.nanoTime()).putLong((long) DROPPED << 32).putLong(lost).putLong(0);
+            }
+            while (out.remaining() >= RECORD_BYTES) {
+                int slot = (int) cursor & mask;
+                if ((long) PUBLISHED.getAcquire(published, slot) != cursor + 1) {
+                    break;
+                }
+                int i = slot * 4;
+                out.putLong(data[i]).putLong(data[i + 1]).putLong(data[i + 2]).putLong(data[i + 3]);
+                cursor++;
+                count++;
+            }
+            // 칸을 다 복사한 뒤에야 생산자에게 돌려줌
+            consumed = cursor;
+            flush();
+            return count;
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+
+        // 종료 훅. 소비자가 남은 레코드를 쓰고 파일을 닫을 때까지 잠깐 기다린다
+        private void close() {
+            running = false;
+            LockSupport.unpark(drainer);
+            try {
+                drainer.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
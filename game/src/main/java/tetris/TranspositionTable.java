@@ -0,0 +1,136 @@
+package tetris;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// 탐색 스레드들이 함께 쓰는 고정 크기 평가 캐시. 잠금 없이 long[] 하나에 2칸짜리 버킷으로 저장한다
+// 항목은 (key ^ data, data) 두 long 으로 쓰고, 읽을 때 XOR 가 키와 맞지 않으면(다른 스레드가 쓰는 중에 섞였으면) 없는 것으로 본다
+public final class TranspositionTable {
+    private static final int BUCKET = 2;
+
+    private final long[] slots;
+    private final int mask;
+    // 결정(탐색)마다 바뀌는 세대. 이전 세대 항목부터 교체한다. data 가 0 이 되지 않도록 1..255
+    private int age = 1;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder replaced = new LongAdder();
+
+    // 버킷 2^log2Buckets 개, 버킷당 항목 2개, 항목당 16바이트
+    public TranspositionTable(int log2Buckets) {
+        if (log2Buckets < 1 || log2Buckets > 26) {
+            throw new IllegalArgumentException("log2Buckets out of range: " + log2Buckets);
+        }
+        int buckets = 1 << log2Buckets;
+        this.slots = new long[buckets * BUCKET * 2];
+        this.mask = buckets - 1;
+    }
+
+    // 새 결정을 시작할 때 호출. 이전 결정에서 저장한 항목은 깊이와 상관없이 먼저 밀려난다
+    public void newSearch() {
+        age = age == 255 ? 1 : age + 1;
+    }
+
+    // depth 이상 깊이로 저장된 점수. 없으면 NaN
+    public double probe(long key, int depth) {
+        probes.increment();
+        int base = (int) (key & mask) * BUCKET * 2;
+        for (int i = 0; i < BUCKET; i++) {
+            int slot = base + i * 2;
+            long data = slots[slot + 1];
+            if (data != 0 && (slots[slot] ^ data) == key && depth(data) >= depth) {
+                hits.increment();
+                return Float.intBitsToFloat((int) (data >>> 32));
+            }
+        }
+        return Double.NaN;
+    }
+
+    // 같은 키가 있으면 덮어쓰고, 없으면 이전 세대 항목, 그다음 얕은 항목을 교체
+    public void store(long key, int depth, double score) {
+        stores.increment();
+        long data = (long) Float.floatToRawIntBits((float) score) << 32 | (depth & 0xFF) << 8 | age;
+        int base = (int) (key & mask) * BUCKET * 2;
+        int victim = base;
+        int victimRank = Integer.MAX_VALUE;
+        boolean evict = true;
+        for (int i = 0; i < BUCKET; i++) {
+            int slot = base + i * 2;
+            long old = slots[slot + 1];
+            if (old == 0) {
+                victim = slot;
+                evict = false;
+                break;
+            }
+            if ((slots[slot] ^ old) == key) {
+                if (depth(old) > depth && age(old) == age) {
+                    return;
+                }
+                victim = slot;
+                evict = false;
+                break;
+            }
+            // 지금 세대 항목은 256 을 더해 뒤로 미룸
+            int rank = (age(old) == age ? 256 : 0) + depth(old);
+            if (rank < victimRank) {
+                victim = slot;
+                victimRank = rank;
+            }
+        }
+        if (evict) {
+            replaced.increment();
+        }
+        slots[victim] = key ^ data;
+        slots[victim + 1] = data;
+    }
+
+    private static int depth(long data) {
+        return (int) (data >>> 8) & 0xFF;
+    }
+
+    private static int age(long data) {
+        return (int) data & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        replaced.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    // 다른 키의 항목을 밀어내고 저장한 횟수
+    public long getReplaced() {
+        return replaced.sum();
+    }
+
+    public double getHitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    public long getMemoryBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("probes=%d hit=%.1f%% stores=%d replaced=%d size=%dKB",
+                getProbes(), getHitRate() * 100, getStores(), getReplaced(), getMemoryBytes() / 1024);
+    }
+}
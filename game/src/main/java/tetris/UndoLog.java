@@ -0,0 +1,44 @@
+package tetris;
+
+import java.util.Arrays;
+
+// make/unmake 용 되돌리기 기록. 항목은 long 몇 개로 쌓이고 unmake 가 거꾸로 꺼낸다
+// 탐색 스레드마다 하나씩 쓰고, 한 번 커진 배열은 다시 할당하지 않는다
+public final class UndoLog {
+    private long[] entries;
+    private int size = 0;
+
+    public UndoLog() {
+        this(64);
+    }
+
+    public UndoLog(int capacity) {
+        entries = new long[Math.max(capacity, 8)];
+    }
+
+    void push(long value) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        entries[size++] = value;
+    }
+
+    long pop() {
+        if (size == 0) {
+            throw new IllegalStateException("undo log is empty");
+        }
+        return entries[--size];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package tetris;
+
+import java.nio.ByteBuffer;
+
+// 음수가 아닌 정수를 7비트씩 끊어 쓰는 가변 길이 인코딩 (작은 값일수록 짧음, 127 이하는 1바이트)
+final class Varint {
+    private Varint() {
+    }
+
+    static void write(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long read(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+
+    // 음수도 짧게: 0, -1, 1, -2, ... 를 0, 1, 2, 3, ... 으로 바꿔 씀 (zigzag)
+    static void writeSigned(ByteBuffer out, long value) {
+        write(out, value << 1 ^ value >> 63);
+    }
+
+    static long readSigned(ByteBuffer in) {
+        long value = read(in);
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    static int size(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
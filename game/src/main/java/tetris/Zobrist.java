@@ -0,0 +1,59 @@
+package tetris;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Zobrist 해시 키. 칸 (x, y) 마다 난수 하나를 두고 차 있는 칸의 키를 모두 XOR 한 값이 보드 해시다
+// 같은 크기의 보드는 항상 같은 키 표를 쓰므로 보드끼리, 스레드끼리 해시를 비교할 수 있다
+public final class Zobrist {
+    private static final Map<Long, Zobrist> TABLES = new ConcurrentHashMap<>();
+    private static final long[] CURRENT = keys(Mino.TYPES, 0x5EED_C0DEL);
+    private static final long[] NEXT = keys(Mino.TYPES, 0x5EED_BEEFL);
+
+    private final int cols;
+    private final long[] cells;
+
+    private Zobrist(int rows, int cols) {
+        this.cols = cols;
+        this.cells = keys(rows * cols, (long) rows << 32 | cols);
+    }
+
+    static Zobrist of(int rows, int cols) {
+        return TABLES.computeIfAbsent((long) rows << 32 | cols, key -> new Zobrist(rows, cols));
+    }
+
+    private static long[] keys(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    long cell(int x, int y) {
+        return cells[y * cols + x];
+    }
+
+    // y 행에 bits 가 차 있을 때의 기여분
+    long row(int y, long bits) {
+        long hash = 0;
+        int base = y * cols;
+        while (bits != 0) {
+            hash ^= cells[base + Long.numberOfTrailingZeros(bits)];
+            bits &= bits - 1;
+        }
+        return hash;
+    }
+
+    // 보드 해시에 현재 조각과 다음 조각 종류를 섞는다. 조각 위치는 넣지 않음 (결정은 항상 시작 위치에서 하므로)
+    public static long position(long boardHash, int currentType, int nextType) {
+        return boardHash ^ CURRENT[currentType] ^ NEXT[nextType];
+    }
+
+    // 다음 조각을 모를 때 (탐색의 마지막 수)
+    public static long position(long boardHash, int currentType) {
+        return boardHash ^ CURRENT[currentType];
+    }
+}
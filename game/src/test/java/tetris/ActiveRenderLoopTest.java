@@ -0,0 +1,72 @@
+package tetris;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 화면 없이 ImageFrameSink 로 능동 렌더링의 프레임 간격과 예산 초과 기록을 확인
+// 루프와 싱크에 같은 가짜 시계를 넣어, 그리기는 시간이 들지 않고 기다리기는 시계를 그 시각으로 옮기기만 한다
+class ActiveRenderLoopTest {
+    private static final int FRAME_RATE = 50;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAME_RATE;
+    private static final int FRAMES = 100;
+
+    private long now = 1_000_000_000L;
+    private int calls;
+    private ImageFrameSink sink;
+    private ActiveRenderLoop loop;
+
+    // slowEvery 번째 프레임마다 스냅샷을 얻는 데 slowNanos 가 걸림 (0 이면 늘 바로). FRAMES 개를 그리고 멈춤
+    private void run(int slowEvery, long slowNanos) {
+        int cellSize = Tetris.Game.cellSize(10);
+        int width = 10 * cellSize + Tetris.Game.PANEL_WIDTH;
+        Snapshot state = new PlayManager(1).snapshot();
+        sink = new ImageFrameSink(width, Tetris.Game.HEIGHT, FRAME_NANOS * 2, () -> now);
+        Renderer renderer = new Renderer(cellSize, width, Tetris.Game.HEIGHT);
+        loop = new ActiveRenderLoop(FRAME_RATE, () -> {
+            if (++calls == FRAMES) {
+                loop.stop();
+            }
+            if (slowEvery > 0 && calls % slowEvery == 0) {
+                now += slowNanos;
+            }
+            return state;
+        }, renderer, sink, () -> now, deadline -> now = Math.max(now, deadline));
+        loop.run();
+    }
+
+    @Test
+    void presentsAtTargetRate() {
+        run(0, 0);
+
+        LatencyStats intervals = sink.getIntervals();
+        assertEquals(FRAMES, sink.getFrames());
+        assertEquals(FRAMES - 1, intervals.getCount());
+        assertEquals(FRAME_NANOS, intervals.getMeanNanos(), intervals.toString());
+        assertEquals(FRAME_NANOS, intervals.getMaxNanos());
+        assertEquals(0, intervals.getOverBudget());
+        LatencyStats pacing = loop.getPacing();
+        assertEquals(FRAMES, pacing.getCount());
+        assertEquals(0, pacing.getMaxNanos());
+        assertEquals(0, pacing.getDropped());
+    }
+
+    @Test
+    void countsOverrunsAndSkipsMissedFrames() {
+        // 열 프레임마다 한 번 세 프레임 동안 멈춤 -> 그 프레임은 앞 프레임과 네 주기 떨어져 그려지고(예산 두 주기 초과),
+        // 밀린 세 주기는 따라잡지 않고 건너뛰어 다음 프레임은 다시 주기에 맞춰 시작함
+        run(10, FRAME_NANOS * 3);
+
+        int slow = FRAMES / 10;
+        LatencyStats intervals = sink.getIntervals();
+        assertEquals(FRAMES, sink.getFrames());
+        assertEquals(FRAMES - 1, intervals.getCount());
+        assertEquals(slow, intervals.getOverBudget(), intervals.toString());
+        assertEquals(FRAME_NANOS * 4, intervals.getMaxNanos());
+        assertEquals((double) ((FRAMES - 1 - slow) + slow * 4) * FRAME_NANOS / (FRAMES - 1),
+                intervals.getMeanNanos(), 1e-6);
+        LatencyStats pacing = loop.getPacing();
+        assertEquals(0, pacing.getMaxNanos());
+        assertEquals(slow * 3, pacing.getDropped(), pacing.toString());
+    }
+}
@@ -0,0 +1,86 @@
+package tetris;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 기록 -> 다시 돌리기가 같은 게임을 만드는지, 예전 형식(코드 0..4 만 쓰던) 파일이 계속 읽히는지 확인
+class ReplayTest {
+    @Test
+    void everyActionHasItsOwnCode() {
+        for (Action action : Action.values()) {
+            int code = ReplayRecorder.code(action);
+            assertNotEquals(ReplayRecorder.END, code, action.name());
+            assertTrue(code < 8, action.name());
+            assertEquals(action, ReplayRecorder.action(code));
+        }
+    }
+
+    @Test
+    void replayReproducesRecordedGame() {
+        for (long seed = 1; seed <= 5; seed++) {
+            PlayManager original = new PlayManager(seed, 24, 12, BoardMode.BITBOARD);
+            original.setGravityCurve(GravityCurve.of(0.05, 0.2, 1, 20));
+            original.setLockDelay(4);
+            ReplayRecorder recorder = ReplayRecorder.attach(original);
+            int hardDrops = play(original, new SplittableRandom(seed));
+            assertTrue(hardDrops > 0);
+
+            Replay replay = new Replay(recorder.finish());
+            PlayManager replayed = replay.play();
+            assertEquals(original.getTicks(), replayed.getTicks());
+            assertEquals(original.getScore(), replayed.getScore());
+            assertEquals(original.getLines(), replayed.getLines());
+            assertEquals(original.getPieces(), replayed.getPieces());
+            assertEquals(original.isGameOver(), replayed.isGameOver());
+            assertEquals(original.hash(), replayed.hash());
+            assertTrue(replay.verify());
+        }
+    }
+
+    // 봇 수, 아무 입력, 중력 틱을 섞어서 둔다. 하드 드롭 횟수를 돌려줌
+    private static int play(PlayManager playManager, SplittableRandom random) {
+        AutoPlayer bot = new AutoPlayer(Heuristic.DEFAULT, ForkJoinPool.commonPool(), 0);
+        Action[] actions = Action.values();
+        int hardDrops = 0;
+        while (!playManager.isGameOver() && playManager.getPieces() < 150) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                playManager.step();
+            }
+            Action action = actions[random.nextInt(actions.length)];
+            if (action == Action.HARD_DROP) {
+                hardDrops++;
+            }
+            playManager.apply(action);
+            if (random.nextInt(4) == 0 && !playManager.isGameOver()) {
+                bot.playMove(playManager);
+                hardDrops++;
+            }
+            playManager.step();
+        }
+        return hardDrops;
+    }
+
+    // HARD_DROP(코드 5)이 생기기 전 버전이 봇과 입력을 섞어 기록한 파일. 결과와 마지막 해시는 그 버전에서 잰 값
+    @Test
+    void readsReplayRecordedBeforeHardDrop() throws Exception {
+        Path path = Path.of(ReplayTest.class.getResource("before-hard-drop.replay").toURI());
+        List<Replay> replays = ReplayLog.read(path);
+        assertEquals(1, replays.size());
+        Replay replay = replays.get(0);
+        assertEquals(20240501L, replay.getSeed());
+        assertEquals(new GameResult(20240501L, 3100, 31, 80), replay.getRecordedResult());
+
+        PlayManager playManager = replay.play();
+        assertEquals(177, playManager.getTicks());
+        assertEquals(3100, playManager.getScore());
+        assertEquals(31, playManager.getLines());
+        assertEquals(80, playManager.getPieces());
+        assertEquals(0x124e20af2cf535abL, playManager.hash());
+    }
+}
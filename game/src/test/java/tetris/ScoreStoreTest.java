@@ -0,0 +1,262 @@
+package tetris;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 점수 기록을 같은 내용의 단순 목록(Model)과 비교. 색인을 여러 번 다시 만들 만큼 채우고,
+// 다시 열기, 잘린 쓰기, 깨진 마지막 레코드, 지워진 색인, 기록보다 앞선 색인, 점수 파일이 아닌 파일을 확인한다
+class ScoreStoreTest {
+    private static final String[] PLAYERS = {"alice", "bob", "carol", "dave", "플레이어", "x"};
+
+    @TempDir
+    Path dir;
+
+    // 점수가 높은 순, 같으면 먼저 기록된 게임이 앞
+    private record Game(long record, String player, int score) {
+    }
+
+    private static final class Model {
+        final List<Game> games = new ArrayList<>();
+
+        List<Game> top(int k) {
+            return games.stream()
+                    .sorted(Comparator.comparingInt(Game::score).reversed().thenComparingLong(Game::record))
+                    .limit(k).toList();
+        }
+
+        Game best(String player) {
+            return games.stream().filter(g -> g.player().equals(player))
+                    .min(Comparator.comparingInt(Game::score).reversed().thenComparingLong(Game::record))
+                    .orElse(null);
+        }
+
+        long rank(int score) {
+            return games.stream().filter(g -> g.score() > score).count() + 1;
+        }
+
+        void truncate(int size) {
+            games.subList(size, games.size()).clear();
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom(24);
+    private final Model model = new Model();
+
+    private ScoreStore.Entry append(ScoreStore store) throws IOException {
+        String player = PLAYERS[random.nextInt(PLAYERS.length)];
+        // 점수 폭을 좁게 해 같은 점수가 많이 나오게 함
+        int score = random.nextInt(2000) * 10;
+        ScoreStore.Entry entry = store.append(player, new GameResult(random.nextLong(), score, score / 100,
+                score / 40), 1000 + random.nextInt(100_000), 1_700_000_000_000L + model.games.size());
+        assertEquals(model.games.size(), entry.record());
+        model.games.add(new Game(entry.record(), player, score));
+        return entry;
+    }
+
+    private void check(ScoreStore store) throws IOException {
+        assertEquals(model.games.size(), store.size());
+        List<Game> expected = model.top(25);
+        List<ScoreStore.Entry> actual = store.top(25);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).record(), actual.get(i).record(), "top " + i);
+            assertEquals(expected.get(i).score(), actual.get(i).score());
+            assertEquals(expected.get(i).player(), actual.get(i).player());
+        }
+        for (String player : PLAYERS) {
+            Game best = model.best(player);
+            ScoreStore.Entry entry = store.best(player);
+            assertEquals(best == null ? null : best.record(), entry == null ? null : entry.record(), player);
+        }
+        assertNull(store.best("nobody"));
+        for (int score : new int[]{-1, 0, 5, 10, 9990, 10_000, 19_990, 20_000}) {
+            assertEquals(model.rank(score), store.rank(score), "rank " + score);
+        }
+        for (int i = 0; i < 20; i++) {
+            int score = random.nextInt(21_000);
+            assertEquals(model.rank(score), store.rank(score), "rank " + score);
+        }
+    }
+
+    private List<Path> indexFiles(Path log) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith(log.getFileName() + ".idx")).toList();
+        }
+    }
+
+    @Test
+    void matchesModelAcrossIndexRebuilds() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+            for (int i = 0; i < ScoreStore.REBUILD_TAIL * 3 + 100; i++) {
+                append(store);
+                int tail = model.games.size() % ScoreStore.REBUILD_TAIL;
+                if (tail == 0 || tail == 1 || tail == ScoreStore.REBUILD_TAIL - 1 || i % 1500 == 0) {
+                    check(store);
+                }
+            }
+            check(store);
+        }
+        // 세 번 다시 만든 뒤에도 색인 파일은 마지막 세대 하나만 남음
+        assertEquals(List.of(dir.resolve("scores.dat.idx.2")), indexFiles(log));
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+            append(store);
+            check(store);
+        }
+    }
+
+    // 지울 수 없는 예전 세대(Windows 에서 아직 매핑된 파일처럼)가 있어도 덮어쓰지 않고 다음 세대를 쓴다
+    @Test
+    void neverReplacesAnExistingIndexFile() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        Path stuck = Files.createDirectory(dir.resolve("scores.dat.idx.7"));
+        Files.writeString(stuck.resolve("keep"), "x");
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            for (int i = 0; i < ScoreStore.REBUILD_TAIL + 10; i++) {
+                append(store);
+            }
+            check(store);
+        }
+        assertTrue(Files.isRegularFile(dir.resolve("scores.dat.idx.8")));
+        assertTrue(Files.exists(stuck.resolve("keep")));
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+        }
+    }
+
+    @Test
+    void recoversFromTornLastWrite() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        fill(log, ScoreStore.REBUILD_TAIL + 50);
+        // 레코드를 쓰다 만 채로 꺼진 것처럼 반쪽짜리 레코드를 붙임
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(ScoreStore.RECORD_BYTES / 2));
+        }
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+            append(store);
+            check(store);
+        }
+        assertEquals(16 + model.games.size() * (long) ScoreStore.RECORD_BYTES, Files.size(log));
+    }
+
+    @Test
+    void dropsCorruptLastRecord() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        fill(log, 300);
+        flipByte(log, Files.size(log) - 10);
+        model.truncate(299);
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+        }
+    }
+
+    @Test
+    void rebuildsDeletedIndex() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        fill(log, ScoreStore.REBUILD_TAIL * 2 + 7);
+        for (Path file : indexFiles(log)) {
+            Files.delete(file);
+        }
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+        }
+        assertFalse(indexFiles(log).isEmpty());
+    }
+
+    // 기록이 색인보다 짧아지면(잘린 복사본 등) 그 색인은 버리고 기록만으로 다시 만든다
+    @Test
+    void ignoresIndexAheadOfLog() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        fill(log, ScoreStore.REBUILD_TAIL + 20);
+        int kept = ScoreStore.REBUILD_TAIL - 100;
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(16 + (long) kept * ScoreStore.RECORD_BYTES);
+        }
+        model.truncate(kept);
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            check(store);
+            for (int i = 0; i < 200; i++) {
+                append(store);
+            }
+            check(store);
+        }
+    }
+
+    // 같은 개수를 다시 채워도 예전 색인이 새 기록과 섞이지 않음 (마지막 덮은 레코드의 CRC 로 구분)
+    @Test
+    void ignoresIndexOfDifferentRecords() throws IOException {
+        Path log = dir.resolve("scores.dat");
+        fill(log, ScoreStore.REBUILD_TAIL);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(16 + (ScoreStore.REBUILD_TAIL - 1L) * ScoreStore.RECORD_BYTES);
+        }
+        model.truncate(ScoreStore.REBUILD_TAIL - 1);
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            append(store);
+            check(store);
+        }
+    }
+
+    @Test
+    void refusesFilesThatAreNotScoreLogs() throws IOException {
+        Path shortFile = dir.resolve("notes.txt");
+        Files.writeString(shortFile, "hello");
+        IOException e = assertThrows(IOException.class, () -> ScoreStore.open(shortFile));
+        assertTrue(e.getMessage().startsWith("not a score file"), e.getMessage());
+        assertEquals("hello", Files.readString(shortFile));
+
+        Path other = dir.resolve("other.bin");
+        byte[] bytes = new byte[200];
+        random.nextBytes(bytes);
+        Files.write(other, bytes);
+        assertThrows(IOException.class, () -> ScoreStore.open(other));
+        assertArrayEquals(bytes, Files.readAllBytes(other));
+    }
+
+    @Test
+    void startsEmptyFile() throws IOException {
+        Path log = Files.createFile(dir.resolve("scores.dat"));
+        try (ScoreStore store = ScoreStore.open(log)) {
+            check(store);
+            append(store);
+            check(store);
+        }
+        try (ScoreStore store = ScoreStore.open(log)) {
+            check(store);
+        }
+    }
+
+    private void fill(Path log, int games) throws IOException {
+        try (ScoreStore store = ScoreStore.open(log, false)) {
+            for (int i = 0; i < games; i++) {
+                append(store);
+            }
+        }
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) ~b.get(0)).rewind();
+            channel.write(b, position);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package tetris;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 받지 않는 클라이언트의 밀린 버퍼가 넘쳐 작업 스레드에서 연결이 끊겨도, 같은 작업 스레드의 다른 세션은 계속 도는지 확인
+// 선택자 스레드 없이 루프백 소켓으로 Connection 을 만들어, 밀린 바이트는 소켓에서 빠지지 않는다
+class SessionSchedulerTest {
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private ServerSocketChannel server;
+    private Selector selector;
+    private SessionScheduler scheduler;
+
+    private record Client(SocketChannel channel, Connection connection) {
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    private Client connect() throws IOException {
+        if (server == null) {
+            server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            selector = Selector.open();
+            resources.add(server);
+            resources.add(selector);
+        }
+        SocketChannel client = SocketChannel.open();
+        client.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+        client.connect(server.getLocalAddress());
+        client.configureBlocking(false);
+        SocketChannel channel = server.accept();
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.SO_SNDBUF, 4096);
+        resources.add(client);
+        resources.add(channel);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        return new Client(client, new Connection(channel, key));
+    }
+
+    @Test
+    void overflowingClientDoesNotStopOtherSessions() throws Exception {
+        Client slow = connect();
+        Connection connection = slow.connection();
+        // 소켓이 다 찰 때까지 쓰고, 밀린 버퍼를 한도 1바이트 앞까지 채움 -> 작업 스레드의 START 프레임에서 넘침
+        while (connection.getPending() == 0) {
+            connection.send(ByteBuffer.allocate(4096), -1);
+        }
+        int fill = Connection.MAX_PENDING - 1 - connection.getPending();
+        connection.send(ByteBuffer.allocate(fill), -1);
+        assertEquals(Connection.MAX_PENDING - 1, connection.getPending());
+        assertFalse(connection.isClosed());
+
+        Client[] others = {connect(), connect()};
+        Session[] sessions = new Session[others.length];
+        // 작업 스레드 하나: 넘친 세션과 다른 세션이 같은 휠에 있음
+        scheduler = new SessionScheduler(1, GameServer.TICK_RATE);
+        scheduler.add(new Session(0, Session.Mode.SPRINT, 1, connection));
+        for (int i = 0; i < others.length; i++) {
+            sessions[i] = new Session(1 + i, Session.Mode.SPRINT, 2 + i, others[i].connection());
+            scheduler.add(sessions[i]);
+        }
+
+        await(connection::isClosed, "slow client closed");
+        await(() -> scheduler.getSessions() == others.length, "slow session removed");
+        ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        for (Client other : others) {
+            drain(other.channel(), in);
+        }
+        // 입력을 넣으면 매 틱 새 STATE 가 나가야 함
+        for (int i = 0; i < others.length; i++) {
+            Session session = sessions[i];
+            SocketChannel channel = others[i].channel();
+            long[] received = {0};
+            await(() -> {
+                session.players[0].inputs.offer(received[0] % 2 == 0 ? Action.LEFT : Action.RIGHT, System.nanoTime());
+                received[0] += drain(channel, in);
+                return received[0] > 10 * Protocol.HEADER;
+            }, "session " + session.id + " still ticking");
+            assertFalse(others[i].connection().isClosed());
+        }
+    }
+
+    private static long drain(SocketChannel channel, ByteBuffer in) throws IOException {
+        long total = 0;
+        for (int n; (n = channel.read(in.clear())) > 0; ) {
+            total += n;
+        }
+        return total;
+    }
+
+    private interface Check {
+        boolean done() throws Exception;
+    }
+
+    private static void await(Check check, String what) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!check.done()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for " + what);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package tetris;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 관전 스트림 왕복: SpectatorServer 가 쓰는 SpectatorEncoder 로 관전자 버퍼를 채우고, 그 바이트를 SpectatorDecoder 에 잘라 넣어
+// 프레임마다 되살린 상태가 PlayManager.snapshot() 과 같은지 본다
+// 늘 비워지는 관전자, 가끔 밀려서 델타를 버리고 키프레임으로 다시 맞추는 관전자, 게임 중간에 들어오는 관전자를 둔다
+// 줄 삭제(여러 줄, 떨어진 줄, 한 프레임에 4줄 넘게), 쓰레기 줄, 주기 키프레임, 새 게임을 섞는다
+class SnapshotDeltaTest {
+    private static final int KEYFRAME_TICKS = 60;
+
+    private static final class Viewer {
+        final SpectatorEncoder.Target target = new SpectatorEncoder.Target(SpectatorServer.SPECTATOR_BUFFER);
+        final SpectatorDecoder decoder = new SpectatorDecoder();
+    }
+
+    private final SplittableRandom random = new SplittableRandom(19);
+    private final SpectatorEncoder encoder = new SpectatorEncoder(KEYFRAME_TICKS);
+    private final Viewer live = new Viewer();
+    private final Viewer slow = new Viewer();
+    private final List<SpectatorEncoder.Target> targets = new ArrayList<>(List.of(live.target, slow.target));
+    // 게임 중간에 들어온 관전자 (없으면 null)
+    private Viewer late;
+    // 느린 관전자의 버퍼를 비우지 않는 중인지
+    private boolean holding;
+    private int keyframes;
+    private int released;
+    private int clears;
+    private int multiClears;
+
+    @Test
+    void deltasRebuildEverySnapshot() {
+        // {행, 열}. 64행, 64열은 행/칸 비트마스크의 한계
+        int[][] sizes = {{20, 10}, {64, 10}, {64, 64}, {30, 6}, {40, 13}};
+        int games = 0;
+        for (int[] size : sizes) {
+            for (int game = 0; game < 3; game++) {
+                playGame(size[0], size[1], random.nextLong());
+                games++;
+            }
+        }
+        assertTrue(keyframes > games, "keyframes " + keyframes);
+        assertEquals(keyframes, encoder.getKeyframes());
+        assertTrue(encoder.getResyncs() > 0, "resyncs " + encoder.getResyncs());
+        assertTrue(released > 0, "slow spectator resynced " + released);
+        assertTrue(clears > 50, "delta frames with cleared rows " + clears);
+        assertTrue(multiClears > 0, "delta frames clearing several rows " + multiClears);
+    }
+
+    private void playGame(int rows, int cols, long seed) {
+        PlayManager playManager = new PlayManager(seed, rows, cols, BoardMode.BITBOARD);
+        playManager.setGravityCurve(GravityCurve.fixed(0.5));
+        // 예산 1ns: 늘 시간이 지난 것으로 보고 현재 조각만 보는 탐색 (빠르고, 매번 같은 수)
+        AutoPlayer bot = new AutoPlayer(Heuristic.DEFAULT, ForkJoinPool.commonPool(), 1);
+        Action[] actions = Action.values();
+        long version = -1;
+        // 가끔은 몇 틱을 건너뛰고 보내 한 델타에 여러 번의 고정과 줄 삭제가 들어가게 함
+        int stride = 1;
+        while (!playManager.isGameOver() && playManager.getPieces() < 300) {
+            int roll = random.nextInt(100);
+            if (roll < 30) {
+                bot.playMove(playManager);
+            } else if (roll < 60) {
+                playManager.apply(actions[random.nextInt(actions.length)]);
+            } else if (roll < 62) {
+                playManager.addGarbage(1 + random.nextInt(2), random.nextInt(cols));
+            }
+            playManager.step();
+            if (playManager.getVersion() == version || playManager.getTicks() % stride != 0) {
+                continue;
+            }
+            version = playManager.getVersion();
+            stride = random.nextInt(10) == 0 ? 2 + random.nextInt(6) : 1;
+            Snapshot state = playManager.snapshot();
+            publish(state);
+            // 늦게 들어온 관전자는 지금 상태의 키프레임부터
+            if (late == null && random.nextInt(100) == 0) {
+                late = new Viewer();
+                assertTrue(encoder.hasState());
+                encoder.sendKeyframe(late.target);
+                receive(late, state);
+                targets.add(late.target);
+            }
+        }
+        // 끝난 상태도 전달되는지 (OVER)
+        publish(playManager.snapshot());
+        assertEquals(playManager.isGameOver(), live.decoder.getState().isGameOver());
+        if (late != null) {
+            targets.remove(late.target);
+            late = null;
+        }
+    }
+
+    private void publish(Snapshot state) {
+        boolean due = encoder.keyframeDue(state);
+        encoder.encode(state, targets);
+        // 늘 비워지는 관전자는 정해진 대로 키프레임이나 델타 하나를 받음
+        ByteBuffer out = live.target.out;
+        assertEquals(due ? Protocol.KEYFRAME : Protocol.DELTA, out.get(2));
+        if (due) {
+            keyframes++;
+        } else {
+            countClears(out, state.getLines() - live.decoder.getState().getLines());
+        }
+        receive(live, state);
+        if (late != null) {
+            receive(late, state);
+        }
+
+        if (!holding) {
+            receive(slow, state);
+            holding = random.nextInt(50) == 0;
+        } else if (random.nextInt(slow.target.needsKeyframe ? 4 : 100) == 0) {
+            // 밀린 바이트를 다 보냄. 버린 델타가 없으면 이미 최신 상태이고, 있으면 다음 프레임(키프레임)부터 다시 맞음
+            slow.decoder.accept(slow.target.out.flip());
+            assertFalse(slow.target.out.hasRemaining());
+            slow.target.out.clear();
+            if (!slow.target.needsKeyframe) {
+                assertTrue(SpectatorDecoder.sameState(state, slow.decoder.getState()), "caught up without resync");
+            } else {
+                released++;
+            }
+            holding = false;
+        }
+    }
+
+    private void countClears(ByteBuffer frame, int lines) {
+        ByteBuffer in = frame.duplicate().flip();
+        in.position(Protocol.HEADER);
+        Varint.read(in);
+        if ((in.get() & SnapshotDelta.CLEAR) != 0) {
+            clears++;
+            if (lines > 1) {
+                multiClears++;
+            }
+        }
+    }
+
+    // 버퍼에 프레임 하나가 있어야 함. 두 번에 나눠 넣어, 덜 온 프레임은 읽지 않고 다 오면 읽는지도 확인
+    private void receive(Viewer viewer, Snapshot expected) {
+        ByteBuffer wire = viewer.target.out.flip();
+        SpectatorDecoder decoder = viewer.decoder;
+        int end = wire.limit();
+        long frames = decoder.getFrames();
+        wire.limit(random.nextInt(end));
+        decoder.accept(wire);
+        assertEquals(frames, decoder.getFrames());
+        wire.limit(end);
+        decoder.accept(wire);
+        assertEquals(frames + 1, decoder.getFrames());
+        assertFalse(wire.hasRemaining());
+        wire.clear();
+
+        Snapshot decoded = decoder.getState();
+        assertTrue(SpectatorDecoder.sameState(expected, decoded),
+                () -> "tick " + expected.getTick() + " " + expected.getCols() + "x" + expected.getRows());
+        assertEquals(expected.getGhostY(), decoded.getGhostY());
+    }
+}